@@ -146,7 +146,7 @@ public final class CommandProcessor {
      * @return -1 if m1 has a higher priority, 0 if they are equal, 1 if m2 has a higher priority
      */
     public static int compare(Method m1, Method m2) {
-        Log.kapi("Comparing methods " + m1.getName() + " and " + m2.getName());
+        Log.kapi(() -> "Comparing methods " + m1.getName() + " and " + m2.getName());
         Class<?> sender1 = m1.getParameters()[0].getType();
         Class<?> sender2 = m2.getParameters()[0].getType();
         
@@ -161,7 +161,9 @@ public final class CommandProcessor {
         
         // If they are the same, we check other parameters
         for (int i = 1; i < m1.getParameterCount(); i++) {
-            Log.kapi("Comparing parameters at index " + i);
+            if (Log.isEnabled(Log.Level.KAPI)) {
+                Log.kapi("Comparing parameters at index " + i);
+            }
             Parameter p1 = m1.getParameters()[i];
             if (m2.getParameterCount() == i) {
                 return 1; // m1 has more parameters than m2
@@ -174,7 +176,9 @@ public final class CommandProcessor {
             // Flip so the highest priority is first
             int compare = -(parser1.getPriority(p1.getAnnotatedType()) - parser2.getPriority(p2.getAnnotatedType()));
             if (compare != 0) {
-                Log.kapi("Returning Compare: " + compare);
+                if (Log.isEnabled(Log.Level.KAPI)) {
+                    Log.kapi("Returning Compare: " + compare);
+                }
                 return compare;
             }
             Log.kapi("Parameters have equal priority");
@@ -220,7 +224,7 @@ public final class CommandProcessor {
         if (m1.getParameterCount() < m2.getParameterCount()) {
             return -1; // m2 has more parameters than m1
         }
-        Log.kapi("Methods " + m1.getName() + " and " + m2.getName() + " have equal priority");
+        Log.kapi(() -> "Methods " + m1.getName() + " and " + m2.getName() + " have equal priority");
         return 0;
     }
 }
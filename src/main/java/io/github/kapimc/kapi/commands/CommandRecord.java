@@ -41,7 +41,7 @@ public record CommandRecord(Command instance, List<Method> methods) {
         List<Pair<Method,List<Object>>> methods = new ArrayList<>();
         
         for (Method method : this.methods) {
-            Log.kapi("Processing method " + method.getName());
+            Log.kapi(() -> "Processing method " + method.getName());
             final boolean[] canParseMethod = {true};
             List<Object> parsedArgs = new ArrayList<>();
             Deque<String> argsCopy = new ArrayDeque<>(args);
@@ -63,14 +63,14 @@ public record CommandRecord(Command instance, List<Method> methods) {
                     canParseMethod[0] = false;
                 });
                 if (!canParseMethod[0]) {
-                    Log.kapi("Failed to parse method " + method.getName());
+                    Log.kapi(() -> "Failed to parse method " + method.getName());
                     break;
                 }
             }
             
             // Empty deque means all values were parsed (no leftovers)
             if (canParseMethod[0] && argsCopy.isEmpty()) {
-                Log.kapi("Successfully parsed method " + method.getName());
+                Log.kapi(() -> "Successfully parsed method " + method.getName());
                 methods.add(Pair.of(method, parsedArgs));
             }
         }
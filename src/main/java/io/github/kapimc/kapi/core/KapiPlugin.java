@@ -11,6 +11,7 @@ import io.github.kapimc.kapi.annotations.Kapi;
 import io.github.kapimc.kapi.commands.Command;
 import io.github.kapimc.kapi.commands.CommandRecord;
 import io.github.kapimc.kapi.commands.CommandProcessor;
+import io.github.kapimc.kapi.engine.Engine;
 import io.github.kapimc.kapi.utility.Log;
 import io.github.kapimc.kapi.utility.TaskBuilder;
 import org.bukkit.Bukkit;
@@ -72,6 +73,7 @@ public abstract class KapiPlugin extends JavaPlugin {
             e.printStackTrace();
             Log.warn("Attempting to unload Kapi anyway...");
         }
+        Engine.shutdown();
         Log.info("Disabling Kapi v" + VERSION);
         plugin = null;
     }
@@ -31,7 +31,7 @@ public non-sealed class BlockDisplayData extends DisplayData {
      *
      * @param transformation        the transformation of the display entity
      * @param interpolationDuration the interpolation duration in ticks
-     * @param viewRange             how far away players can see the display entity in blocks
+     * @param viewRange             the view range multiplier, see {@link #setViewRange(float)}
      * @param shadowRadius          the shadow radius of the display entity
      * @param shadowStrength        the shadow strength of the display entity
      * @param displayWidth          the width of the display entity in blocks
@@ -16,6 +16,12 @@ import org.joml.Vector3f;
 
 public sealed abstract class DisplayData permits BlockDisplayData, ItemDisplayData, TextDisplayData {
     
+    /**
+     * The distance in blocks a view range of 1 reaches, with the default entity distance.
+     */
+    @Kapi
+    public static final int BLOCKS_PER_VIEW_RANGE = 64;
+    
     private Transformation transformation;
     private int interpolationDuration;
     private float viewRange;
@@ -102,6 +108,14 @@ public sealed abstract class DisplayData permits BlockDisplayData, ItemDisplayDa
         this.transformation = transformation;
     }
     
+    /**
+     * @return how far away players can see the display entity in blocks, with the default entity distance
+     */
+    @Kapi
+    public double getViewDistance() {
+        return viewRange * BLOCKS_PER_VIEW_RANGE;
+    }
+    
     /**
      * TODO: if you know what this does please open a PR and document it
      *
@@ -121,7 +135,7 @@ public sealed abstract class DisplayData permits BlockDisplayData, ItemDisplayDa
     }
     
     /**
-     * @return how far away players can see the display entity in blocks
+     * @return the view range multiplier of the display entity, see {@link #setViewRange(float)}
      */
     @Kapi
     public float getViewRange() {
@@ -129,9 +143,11 @@ public sealed abstract class DisplayData permits BlockDisplayData, ItemDisplayDa
     }
     
     /**
-     * View range indicates how far away players can see the display entity in blocks.
+     * The view range is a multiplier, not a distance,
+     * players can see the display entity from {@value #BLOCKS_PER_VIEW_RANGE} blocks per unit of view range
+     * (scaled by their entity distance setting), see {@link #getViewDistance()}.
      *
-     * @param range new range in blocks
+     * @param range new view range multiplier, 1 sees the display entity from 64 blocks away
      */
     @Kapi
     public void setViewRange(float range) {
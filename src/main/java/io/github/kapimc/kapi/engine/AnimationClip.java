@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import org.joml.Quaternionfc;
+
+import java.util.Arrays;
+
+/**
+ * A keyframe animation of the translation, rotation and scale of an {@link Object3D},
+ * relative to the object's own transform.<br>
+ * Played with {@link Animator#play(AnimationClip)}, a clip may be played by any number of objects at once.<br>
+ * <br>
+ * Each of the three curves is interpolated on its own, using the {@link Easing} of the earlier keyframe.
+ * Before its first keyframe and after its last one, a curve holds the value of that keyframe,
+ * a curve without keyframes is the identity (no translation, no rotation, a scale of 1).<br>
+ * <br>
+ * Note: keyframes are stored in flat arrays, sampling a clip doesn't allocate
+ */
+@Kapi
+public final class AnimationClip {
+    
+    private final int duration;
+    private boolean looping;
+    private final Track translation;
+    private final Track rotation;
+    private final Track scale;
+    
+    /**
+     * Creates a clip without keyframes.
+     *
+     * @param duration the duration of the clip in ticks
+     * @throws IllegalArgumentException if the duration is less than 1
+     */
+    @Kapi
+    public AnimationClip(int duration) {
+        if (duration < 1) {
+            throw new IllegalArgumentException("Duration must be at least 1 tick");
+        }
+        this.duration = duration;
+        this.translation = new Track(3);
+        this.rotation = new Track(4);
+        this.scale = new Track(3);
+    }
+    
+    /**
+     * @return the duration of the clip in ticks
+     */
+    @Kapi
+    public int getDuration() {
+        return duration;
+    }
+    
+    /**
+     * @return true if the clip starts over after its duration, false if it stops
+     */
+    @Kapi
+    public boolean isLooping() {
+        return looping;
+    }
+    
+    /**
+     * @param looping true to start over after the duration, false to stop (the default)
+     */
+    @Kapi
+    public void setLooping(boolean looping) {
+        this.looping = looping;
+    }
+    
+    /**
+     * Adds a translation keyframe, replacing any translation keyframe at the same tick.
+     *
+     * @param tick   the tick of the keyframe, from 0 to the duration
+     * @param easing how to interpolate from this keyframe to the next one
+     * @return this clip, for chaining
+     * @throws IllegalArgumentException if the tick is outside the clip
+     */
+    @Kapi
+    public AnimationClip addTranslation(int tick, float x, float y, float z, Easing easing) {
+        translation.add(checkTick(tick), easing, x, y, z);
+        return this;
+    }
+    
+    /**
+     * Adds a rotation keyframe, replacing any rotation keyframe at the same tick.
+     *
+     * @param tick     the tick of the keyframe, from 0 to the duration
+     * @param rotation the rotation, normalized when added
+     * @param easing   how to interpolate from this keyframe to the next one
+     * @return this clip, for chaining
+     * @throws IllegalArgumentException if the tick is outside the clip
+     */
+    @Kapi
+    public AnimationClip addRotation(int tick, Quaternionfc rotation, Easing easing) {
+        this.rotation.add(checkTick(tick), easing, rotation.x(), rotation.y(), rotation.z(), rotation.w());
+        Keyframes.normalize(this.rotation.values, this.rotation.indexOf(tick) * 4);
+        return this;
+    }
+    
+    /**
+     * Adds a scale keyframe, replacing any scale keyframe at the same tick.
+     *
+     * @param tick   the tick of the keyframe, from 0 to the duration
+     * @param easing how to interpolate from this keyframe to the next one
+     * @return this clip, for chaining
+     * @throws IllegalArgumentException if the tick is outside the clip
+     */
+    @Kapi
+    public AnimationClip addScale(int tick, float x, float y, float z, Easing easing) {
+        scale.add(checkTick(tick), easing, x, y, z);
+        return this;
+    }
+    
+    /**
+     * Samples the clip at the given time.
+     *
+     * @param time        the time in ticks, between 0 and the duration
+     * @param translation the array to write the translation (x, y, z) to
+     * @param rotation    the array to write the normalized rotation (x, y, z, w) to
+     * @param scale       the array to write the scale (x, y, z) to
+     * @param offset      the index in the arrays to start writing at, multiplied by the number of values
+     */
+    void sample(float time, float[] translation, float[] rotation, float[] scale, int offset) {
+        Track track = this.translation;
+        if (track.count == 0) {
+            translation[offset * 3] = translation[offset * 3 + 1] = translation[offset * 3 + 2] = 0;
+        } else {
+            Keyframes.sample(track.times, track.values, track.easings, track.count, 3, time, translation, offset * 3);
+        }
+        
+        track = this.rotation;
+        if (track.count == 0) {
+            rotation[offset * 4] = rotation[offset * 4 + 1] = rotation[offset * 4 + 2] = 0;
+            rotation[offset * 4 + 3] = 1;
+        } else {
+            Keyframes.sampleRotation(track.times, track.values, track.easings, track.count, time, rotation, offset * 4);
+        }
+        
+        track = this.scale;
+        if (track.count == 0) {
+            scale[offset * 3] = scale[offset * 3 + 1] = scale[offset * 3 + 2] = 1;
+        } else {
+            Keyframes.sample(track.times, track.values, track.easings, track.count, 3, time, scale, offset * 3);
+        }
+    }
+    
+    private int checkTick(int tick) {
+        if (tick < 0 || tick > duration) {
+            throw new IllegalArgumentException("Tick " + tick + " is outside the clip, duration is " + duration);
+        }
+        return tick;
+    }
+    
+    /**
+     * The keyframes of a single curve, sorted by time, with {@code stride} values each.
+     */
+    private static final class Track {
+        private final int stride;
+        private float[] times;
+        private float[] values;
+        private Easing[] easings;
+        private int count;
+        
+        private Track(int stride) {
+            this.stride = stride;
+            this.times = new float[2];
+            this.values = new float[2 * stride];
+            this.easings = new Easing[2];
+        }
+        
+        private void add(int tick, Easing easing, float... keyValues) {
+            int key = Keyframes.findKey(times, count, tick);
+            if (key < 0 || times[key] != tick) {
+                // Shift the later keyframes, keyframes are usually added in order so this is rarely needed
+                key++;
+                if (count == times.length) {
+                    times = Arrays.copyOf(times, count * 2);
+                    values = Arrays.copyOf(values, count * 2 * stride);
+                    easings = Arrays.copyOf(easings, count * 2);
+                }
+                System.arraycopy(times, key, times, key + 1, count - key);
+                System.arraycopy(values, key * stride, values, (key + 1) * stride, (count - key) * stride);
+                System.arraycopy(easings, key, easings, key + 1, count - key);
+                count++;
+            }
+            times[key] = tick;
+            easings[key] = easing;
+            System.arraycopy(keyValues, 0, values, key * stride, stride);
+        }
+        
+        private int indexOf(int tick) {
+            return Keyframes.findKey(times, count, tick);
+        }
+    }
+}
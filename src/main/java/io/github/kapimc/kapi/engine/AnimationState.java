@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+/**
+ * A clip being played by an {@link Animator}, see {@link Animator#play(AnimationClip)}.
+ */
+@Kapi
+public final class AnimationState {
+    
+    private final AnimationClip clip;
+    private float time;
+    private float speed;
+    private float weight;
+    private boolean playing;
+    
+    // Package-private
+    AnimationState(AnimationClip clip) {
+        this.clip = clip;
+        this.speed = 1;
+        this.weight = 1;
+        this.playing = true;
+    }
+    
+    @Kapi
+    public AnimationClip getClip() {
+        return clip;
+    }
+    
+    /**
+     * @return the time in ticks that will be sampled next engine tick
+     */
+    @Kapi
+    public float getTime() {
+        return time;
+    }
+    
+    /**
+     * @param time the time in ticks to sample next engine tick
+     * @throws IllegalArgumentException if the time is outside the clip
+     */
+    @Kapi
+    public void setTime(float time) {
+        if (!(time >= 0 && time <= clip.getDuration())) {
+            throw new IllegalArgumentException("Time must be between 0 and " + clip.getDuration());
+        }
+        this.time = time;
+    }
+    
+    /**
+     * @return how many ticks of the clip are played per engine tick
+     */
+    @Kapi
+    public float getSpeed() {
+        return speed;
+    }
+    
+    /**
+     * @param speed how many ticks of the clip are played per engine tick, 1 by default,
+     *              negative to play the clip backwards
+     * @throws IllegalArgumentException if the speed is not finite
+     */
+    @Kapi
+    public void setSpeed(float speed) {
+        if (!Float.isFinite(speed)) {
+            throw new IllegalArgumentException("Speed must be finite");
+        }
+        this.speed = speed;
+    }
+    
+    /**
+     * @return the weight of this clip when blended with the other clips of the animator
+     */
+    @Kapi
+    public float getWeight() {
+        return weight;
+    }
+    
+    /**
+     * Sets the weight of this clip when blended with the other clips of the animator.<br>
+     * Clips are averaged by weight, if the weights add up to less than 1,
+     * the rest is taken by the object's own transform (no animation).
+     *
+     * @param weight the weight, 1 by default, 0 to pause the clip's effect without stopping it
+     * @throws IllegalArgumentException if the weight is negative or not finite
+     */
+    @Kapi
+    public void setWeight(float weight) {
+        if (!(weight >= 0 && weight < Float.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Weight must be positive and finite");
+        }
+        this.weight = weight;
+    }
+    
+    /**
+     * @return false once the clip was stopped or a clip that isn't looping reached its end
+     */
+    @Kapi
+    public boolean isPlaying() {
+        return playing;
+    }
+    
+    /**
+     * Stops the clip, it's removed from the animator next engine tick.
+     */
+    @Kapi
+    public void stop() {
+        playing = false;
+    }
+    
+    /**
+     * Moves the time by the speed, called after sampling.<br>
+     * A clip that isn't looping stops one tick after sampling its last frame,
+     * so the last keyframe is always shown even if the speed skips over it.
+     */
+    // Package-private
+    void advance() {
+        float duration = clip.getDuration();
+        if (clip.isLooping()) {
+            time = (time + speed) % duration;
+            if (time < 0) time += duration;
+            return;
+        }
+        float end = speed < 0 ? 0 : duration;
+        if (time == end && speed != 0) {
+            playing = false;
+            return;
+        }
+        time = speed < 0 ? Math.max(time + speed, 0) : Math.min(time + speed, duration);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+
+import java.util.Arrays;
+
+/**
+ * Plays {@link AnimationClip}s on an {@link Object3D}, see {@link Object3D#getAnimator()}.<br>
+ * <br>
+ * The clips are sampled and blended by the {@link Engine} once per tick, before the transform pass,
+ * into a matrix that is applied after the object's own transform.
+ * The object's transform can still be modified while animating, for example by a velocity system.<br>
+ * <br>
+ * Note: sampling reuses preallocated arrays and doesn't allocate,
+ * the cost per tick is a binary search per curve per playing clip
+ */
+@Kapi
+public final class Animator {
+    
+    private final Object3D object;
+    private AnimationState[] states;
+    private int stateCount;
+    private final float[] sampledTranslation;
+    private final float[] sampledRotation;
+    private final float[] sampledScale;
+    private final float[] translation;
+    private final float[] rotation;
+    private final float[] scale;
+    private final float[] matrix;
+    private final Matrix4f pose;
+    private boolean posed;
+    private boolean registered;
+    
+    // Package-private
+    Animator(Object3D object) {
+        this.object = object;
+        this.states = new AnimationState[2];
+        this.sampledTranslation = new float[3];
+        this.sampledRotation = new float[4];
+        this.sampledScale = new float[3];
+        this.translation = new float[3];
+        this.rotation = new float[4];
+        this.scale = new float[3];
+        this.matrix = new float[16];
+        this.pose = new Matrix4f();
+    }
+    
+    /**
+     * Starts playing a clip from its beginning, blended with the clips that are already playing.<br>
+     * A clip may be played multiple times at once, each play has its own state.
+     *
+     * @param clip the clip to play
+     * @return the state of the clip, to change its speed and weight or stop it
+     */
+    @Kapi
+    public AnimationState play(AnimationClip clip) {
+        AnimationState state = new AnimationState(clip);
+        if (stateCount == states.length) {
+            states = Arrays.copyOf(states, stateCount * 2);
+        }
+        states[stateCount++] = state;
+        if (object.isSpawned()) {
+            Engine.getInstance().animate(this);
+        }
+        return state;
+    }
+    
+    /**
+     * Stops every state of the clip, see {@link AnimationState#stop()}.
+     *
+     * @param clip the clip to stop
+     */
+    @Kapi
+    public void stop(AnimationClip clip) {
+        for (int i = 0; i < stateCount; i++) {
+            if (states[i].getClip() == clip) states[i].stop();
+        }
+    }
+    
+    /**
+     * Stops all clips immediately, the object returns to its own transform.
+     */
+    @Kapi
+    public void stopAll() {
+        for (int i = 0; i < stateCount; i++) {
+            states[i].stop();
+        }
+        Arrays.fill(states, 0, stateCount, null);
+        stateCount = 0;
+        if (posed) {
+            posed = false;
+            object.markTransformDirty();
+        }
+    }
+    
+    /**
+     * @return true if any clip is playing
+     */
+    @Kapi
+    public boolean isPlaying() {
+        for (int i = 0; i < stateCount; i++) {
+            if (states[i].isPlaying()) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * @return the blended matrix of the clips, applied after the object's transform,
+     *     only meaningful if {@link #isPosed()}
+     */
+    // Package-private
+    Matrix4fc getPose() {
+        return pose;
+    }
+    
+    /**
+     * @return true if the pose should be applied, false if no clip has any weight
+     */
+    // Package-private
+    boolean isPosed() {
+        return posed;
+    }
+    
+    // Package-private
+    boolean isRegistered() {
+        return registered;
+    }
+    
+    // Package-private
+    void setRegistered(boolean registered) {
+        this.registered = registered;
+    }
+    
+    /**
+     * Samples and blends the playing clips, then advances their time.
+     *
+     * @return true if the engine should keep ticking this animator,
+     *     false if no clip is playing or the object was despawned
+     */
+    // Package-private
+    boolean tick() {
+        if (!object.isSpawned()) return false;
+        
+        float total = 0;
+        zero(translation);
+        zero(rotation);
+        zero(scale);
+        int playing = 0;
+        for (int i = 0; i < stateCount; i++) {
+            AnimationState state = states[i];
+            if (!state.isPlaying()) continue;
+            states[playing++] = state;
+            
+            float weight = state.getWeight();
+            if (weight > 0) {
+                state.getClip().sample(state.getTime(), sampledTranslation, sampledRotation, sampledScale, 0);
+                // q and -q are the same rotation, align with the sum so the rotations don't cancel out
+                float rotationWeight = Keyframes.dot(rotation, 0, sampledRotation, 0) < 0 ? -weight : weight;
+                for (int j = 0; j < 3; j++) {
+                    translation[j] += sampledTranslation[j] * weight;
+                    scale[j] += sampledScale[j] * weight;
+                }
+                for (int j = 0; j < 4; j++) {
+                    rotation[j] += sampledRotation[j] * rotationWeight;
+                }
+                total += weight;
+            }
+            state.advance();
+        }
+        Arrays.fill(states, playing, stateCount, null);
+        stateCount = playing;
+        
+        if (total == 0) {
+            if (posed) {
+                posed = false;
+                object.markTransformDirty();
+            }
+            return stateCount > 0;
+        }
+        if (total < 1) {
+            // The rest of the weight goes to the identity, the object's own transform
+            float rest = 1 - total;
+            for (int j = 0; j < 3; j++) {
+                scale[j] += rest;
+            }
+            rotation[3] += rotation[3] < 0 ? -rest : rest;
+            total = 1;
+        }
+        for (int j = 0; j < 3; j++) {
+            translation[j] /= total;
+            scale[j] /= total;
+        }
+        Keyframes.normalize(rotation, 0);
+        Keyframes.compose(translation, rotation, scale, matrix);
+        
+        if (!posed || !equals(pose, matrix)) {
+            // Unchanged poses don't invalidate the world transforms of the object and its children
+            pose.set(matrix);
+            posed = true;
+            object.markTransformDirty();
+        }
+        // Once the last clip ends, one more tick returns the object to its own transform
+        return true;
+    }
+    
+    private static void zero(float[] values) {
+        Arrays.fill(values, 0);
+    }
+    
+    private static boolean equals(Matrix4fc matrix, float[] values) {
+        return matrix.m00() == values[0] && matrix.m01() == values[1] && matrix.m02() == values[2]
+            && matrix.m10() == values[4] && matrix.m11() == values[5] && matrix.m12() == values[6]
+            && matrix.m20() == values[8] && matrix.m21() == values[9] && matrix.m22() == values[10]
+            && matrix.m30() == values[12] && matrix.m31() == values[13] && matrix.m32() == values[14];
+    }
+}
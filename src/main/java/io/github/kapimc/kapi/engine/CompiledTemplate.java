@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.data.Pair;
+import io.github.kapimc.kapi.engine.ecs.ComponentKey;
+import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An immutable snapshot of a {@link Template3D}, flattened into arrays for creating instances.<br>
+ * <br>
+ * Built once on the first instantiation after the template was modified, see {@link Template3D#compile()},
+ * so creating an instance only copies from the snapshot instead of walking the template's maps.<br>
+ * Point clouds and child transforms are copied when compiling, so modifying the template afterward
+ * (including through {@link Template3D#getPointCloud()}) doesn't affect the snapshot.<br>
+ * Arrays are shared with the instances, they must not be modified.
+ */
+final class CompiledTemplate {
+    
+    final PointCloud points;
+    final double[] levelOfDetailDistancesSquared;
+    final PointCloud[] levelsOfDetail;
+    final String[] childNames;
+    final Matrix4fc[] childTransforms;
+    final Template3D[] childTemplates;
+    final EventListeners events;
+    final List<Pair<SystemTrigger,Consumer<Object3D>>> tasks;
+    final @Nullable Rig rig;
+    private final ComponentKey<?>[] defaultKeys;
+    private final @Nullable Object[] defaultValues;
+    
+    CompiledTemplate(
+        PointCloud points,
+        Map<Double,PointCloud> levelsOfDetail,
+        Map<String,Pair<Matrix4f,Template3D>> children,
+        Map<String,@Nullable Object> defaults,
+        EventListeners events,
+        List<Pair<SystemTrigger,Consumer<Object3D>>> tasks,
+        @Nullable Rig rig
+    ) {
+        // Copy-on-write, neither the template nor the snapshot sees the other's modifications
+        this.points = points.instantiate();
+        
+        this.levelOfDetailDistancesSquared = new double[levelsOfDetail.size()];
+        this.levelsOfDetail = new PointCloud[levelsOfDetail.size()];
+        int level = 0;
+        for (Map.Entry<Double,PointCloud> entry : levelsOfDetail.entrySet()) {
+            levelOfDetailDistancesSquared[level] = entry.getKey() * entry.getKey();
+            this.levelsOfDetail[level] = entry.getValue().instantiate();
+            level++;
+        }
+        
+        this.childNames = new String[children.size()];
+        this.childTransforms = new Matrix4fc[children.size()];
+        this.childTemplates = new Template3D[children.size()];
+        int child = 0;
+        for (Map.Entry<String,Pair<Matrix4f,Template3D>> entry : children.entrySet()) {
+            // IntelliJ still doesn't handle Jspecify with generics well
+            // Pair doesn't annotate either of its generics with @Nullable
+            assert entry.getValue().getFirst() != null;
+            assert entry.getValue().getSecond() != null;
+            childNames[child] = entry.getKey();
+            childTransforms[child] = new Matrix4f(entry.getValue().getFirst());
+            childTemplates[child] = entry.getValue().getSecond();
+            child++;
+        }
+        
+        // Keys are resolved once here, instead of by name on every spawn
+        this.defaultKeys = new ComponentKey<?>[defaults.size()];
+        this.defaultValues = new Object[defaults.size()];
+        int component = 0;
+        for (Map.Entry<String,@Nullable Object> entry : defaults.entrySet()) {
+            defaultKeys[component] = ComponentKey.named(entry.getKey());
+            defaultValues[component] = entry.getValue();
+            component++;
+        }
+        
+        // Defaults are set first, so the template's spawn systems can read them
+        this.events = new EventListeners();
+        if (defaultKeys.length > 0) {
+            this.events.add(SystemTrigger.ON_SPAWN.getEventId(), this::setDefaults);
+        }
+        this.events.addAll(events);
+        this.tasks = List.copyOf(tasks);
+        this.rig = rig;
+    }
+    
+    private void setDefaults(Object3D instance) {
+        for (int i = 0; i < defaultKeys.length; i++) {
+            instance.setAdapted(defaultKeys[i], defaultValues[i]);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.engine.ecs.ComponentKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * For every component, the spawned objects that have it.<br>
+ * Updated by {@link Object3D} when it's spawned, despawned, or a component is set or removed,
+ * so queries only look at objects that have the components.
+ */
+final class ComponentIndex {
+    private Object3D[][] members;
+    private int[] sizes;
+    
+    ComponentIndex() {
+        this.members = new Object3D[0][];
+        this.sizes = new int[0];
+    }
+    
+    /**
+     * Adds the object to the members of the component, does nothing if it's already a member.
+     */
+    void add(int component, Object3D object) {
+        if (object.getIndexSlot(component) != -1) return;
+        if (component >= members.length) {
+            int length = Math.max(component + 1, members.length * 2);
+            int oldLength = members.length;
+            members = Arrays.copyOf(members, length);
+            sizes = Arrays.copyOf(sizes, length);
+            for (int i = oldLength; i < length; i++) {
+                members[i] = new Object3D[0];
+            }
+        }
+        Object3D[] list = members[component];
+        int size = sizes[component];
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(8, size * 2));
+            members[component] = list;
+        }
+        list[size] = object;
+        object.setIndexSlot(component, size);
+        sizes[component] = size + 1;
+    }
+    
+    /**
+     * Removes the object from the members of the component, does nothing if it's not a member.
+     */
+    void remove(int component, Object3D object) {
+        int slot = object.getIndexSlot(component);
+        if (slot == -1) return;
+        Object3D[] list = members[component];
+        int last = --sizes[component];
+        // Move the last member into the slot, so members stay dense
+        Object3D moved = list[last];
+        list[slot] = moved;
+        moved.setIndexSlot(component, slot);
+        list[last] = null;
+        object.setIndexSlot(component, -1);
+    }
+    
+    /**
+     * @return the spawned objects that have all the given components
+     */
+    List<Object3D> query(ComponentKey<?>[] keys) {
+        if (keys.length == 0) return new ArrayList<>();
+        // Only iterate the members of the rarest component
+        int rarest = keys[0].getIndex();
+        for (ComponentKey<?> key : keys) {
+            if (size(key.getIndex()) < size(rarest)) rarest = key.getIndex();
+        }
+        
+        int size = size(rarest);
+        List<Object3D> result = new ArrayList<>(size);
+        Object3D[] list = size == 0 ? null : members[rarest];
+        outer:
+        for (int i = 0; i < size; i++) {
+            Object3D object = list[i];
+            for (ComponentKey<?> key : keys) {
+                if (object.getIndexSlot(key.getIndex()) == -1) continue outer;
+            }
+            result.add(object);
+        }
+        return result;
+    }
+    
+    /**
+     * @param slot the slot of the member, from 0 until {@link #size(int)}
+     * @return the member of the component at the slot
+     */
+    Object3D get(int component, int slot) {
+        return members[component][slot];
+    }
+    
+    int size(int component) {
+        return component < sizes.length ? sizes[component] : 0;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+/**
+ * A world-space box, already expanded by the render distance of whatever it contains.<br>
+ * A player inside the box may see its contents, a player outside of it can't.
+ */
+final class CullingBounds {
+    private double minX;
+    private double minY;
+    private double minZ;
+    private double maxX;
+    private double maxY;
+    private double maxZ;
+    
+    CullingBounds() {
+        setEmpty();
+    }
+    
+    void setEmpty() {
+        minX = minY = minZ = Double.POSITIVE_INFINITY;
+        maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+    }
+    
+    /**
+     * Sets the bounds to a cube around a point.
+     *
+     * @param x     the x coordinate of the center
+     * @param y     the y coordinate of the center
+     * @param z     the z coordinate of the center
+     * @param reach the distance from the center to each face, may be infinite
+     */
+    void set(double x, double y, double z, double reach) {
+        minX = x - reach;
+        minY = y - reach;
+        minZ = z - reach;
+        maxX = x + reach;
+        maxY = y + reach;
+        maxZ = z + reach;
+    }
+    
+    void set(CullingBounds other) {
+        minX = other.minX;
+        minY = other.minY;
+        minZ = other.minZ;
+        maxX = other.maxX;
+        maxY = other.maxY;
+        maxZ = other.maxZ;
+    }
+    
+    /**
+     * Grows the bounds to also contain the other bounds.
+     */
+    void include(CullingBounds other) {
+        minX = Math.min(minX, other.minX);
+        minY = Math.min(minY, other.minY);
+        minZ = Math.min(minZ, other.minZ);
+        maxX = Math.max(maxX, other.maxX);
+        maxY = Math.max(maxY, other.maxY);
+        maxZ = Math.max(maxZ, other.maxZ);
+    }
+    
+    boolean contains(double x, double y, double z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+/**
+ * How an {@link AnimationClip} interpolates from a keyframe to the next one.
+ */
+@Kapi
+public enum Easing {
+    /**
+     * Constant speed.
+     */
+    @Kapi
+    LINEAR,
+    /**
+     * Holds the keyframe's value until the next keyframe, then jumps to it.
+     */
+    @Kapi
+    STEP,
+    /**
+     * Starts slow and speeds up (cubic).
+     */
+    @Kapi
+    EASE_IN,
+    /**
+     * Starts fast and slows down (cubic).
+     */
+    @Kapi
+    EASE_OUT,
+    /**
+     * Starts slow, speeds up in the middle and slows down at the end (cubic).
+     */
+    @Kapi
+    EASE_IN_OUT;
+    
+    /**
+     * @param progress the progress between two keyframes, from 0 to 1
+     * @return the eased progress, 0 at 0 and 1 at 1
+     */
+    @Kapi
+    public float apply(float progress) {
+        return switch (this) {
+            case LINEAR -> progress;
+            case STEP -> progress < 1 ? 0 : 1;
+            case EASE_IN -> progress * progress * progress;
+            case EASE_OUT -> {
+                float inverse = 1 - progress;
+                yield 1 - inverse * inverse * inverse;
+            }
+            case EASE_IN_OUT -> {
+                if (progress < 0.5f) yield 4 * progress * progress * progress;
+                float inverse = -2 * progress + 2;
+                yield 1 - inverse * inverse * inverse / 2;
+            }
+        };
+    }
+}
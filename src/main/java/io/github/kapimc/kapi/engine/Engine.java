@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.engine.ecs.ComponentKey;
+import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
+import io.github.kapimc.kapi.engine.renderable.Renderable;
+import io.github.kapimc.kapi.utility.Log;
+import io.github.kapimc.kapi.utility.TaskBuilder;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+import org.joml.Matrix4fc;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The engine is responsible for rendering all spawned {@link Object3D}s.<br>
+ * <br>
+ * Instead of scheduling a task per object, every spawned root object
+ * (an object without a parent) is registered here, and all of them are
+ * rendered in a single pass every server tick.<br>
+ * Children are rendered by their root, so they are never registered directly.<br>
+ * <br>
+ * The engine starts itself when the first object is spawned,
+ * there is no need to start it manually.<br>
+ * <br>
+ * Objects are culled, an object (and its children) is only rendered
+ * if a player is within the render distance of its renderables,
+ * see {@link Renderable#getRenderDistance()}.<br>
+ * <br>
+ * Interval and delay systems of spawned objects are also run by the engine,
+ * objects with the same system and trigger are run together at the start of the tick,
+ * see {@link SystemScheduler}.<br>
+ * <br>
+ * Nearby entity queries, see {@link #getNearbyEntities(World, BoundingBox)},
+ * share a spatial hash of each world's entities that is built at most once per tick,
+ * when the world is queried often enough for it to pay off.<br>
+ * <br>
+ * Collisions between objects, see {@link #getCollidingObjects(Object3D)},
+ * are found for all objects at once, at most once per tick.<br>
+ * <br>
+ * Particles are not sent while rendering, they are collected in a {@link ParticleBatch}
+ * and sent to the players in range at the end of the tick.<br>
+ * <br>
+ * A render budget can be set with {@link #setRenderBudget(double)},
+ * objects that don't fit in the budget are deferred to the next tick,
+ * where they are rendered before anything else, the longest deferred first.
+ * Otherwise, objects closer to players are rendered first.
+ */
+@Kapi
+public final class Engine {
+    
+    private static final int TICKS_TO_AVERAGE = 20;
+    // Deferred objects first, the longest deferred first, so every object is eventually rendered
+    private static final Comparator<Object3D> RENDER_ORDER = Comparator
+        .comparingLong((Object3D object) -> object.isDeferred() ? object.getDeferredTick() : Long.MAX_VALUE)
+        .thenComparingDouble(Object3D::getRenderPriority);
+        
+    private static @Nullable Engine instance;
+    
+    /**
+     * @return the instance of the engine
+     */
+    @Kapi
+    public static Engine getInstance() {
+        if (instance == null) {
+            instance = new Engine();
+        }
+        return instance;
+    }
+    
+    /**
+     * Stops the engine and its worker threads, called when the plugin is disabled.<br>
+     * The engine's task is cancelled by the server, the next use of the engine creates a new instance.
+     */
+    public static void shutdown() {
+        if (instance == null) return;
+        instance.scheduler.shutdown();
+        instance = null;
+    }
+    
+    private final List<Object3D> objects;
+    private final List<Object3D> dueObjects;
+    private final ViewerSnapshot viewers;
+    private final ParticleBatch particles;
+    private final ComponentIndex componentIndex;
+    private final SystemScheduler scheduler;
+    private final EntitySnapshot entities;
+    private final ObjectCollisions collisions;
+    private final List<Animator> animators;
+    private final long[] tickDurations;
+    private boolean running;
+    private long currentTick;
+    private long renderBudgetNanos;
+    private long lastTickNanos;
+    private int renderedObjects;
+    private int deferredObjects;
+    private int culledObjects;
+    
+    private Engine() {
+        this.objects = new ArrayList<>();
+        this.dueObjects = new ArrayList<>();
+        this.viewers = new ViewerSnapshot();
+        this.particles = new ParticleBatch();
+        this.componentIndex = new ComponentIndex();
+        this.scheduler = new SystemScheduler();
+        this.entities = new EntitySnapshot();
+        this.collisions = new ObjectCollisions();
+        this.animators = new ArrayList<>();
+        this.tickDurations = new long[TICKS_TO_AVERAGE];
+    }
+    
+    /**
+     * Registers a root object to be rendered every tick,
+     * starts the engine if it's not already running.
+     *
+     * @param object the root object to register
+     */
+    void register(Object3D object) {
+        object.setSpawnTick(currentTick);
+        if (object.isRegistered()) return;
+        object.setRegistered(true);
+        objects.add(object);
+        start();
+    }
+    
+    /**
+     * Subscribes an object to an interval or delay system, starts the engine if it's not already running.
+     *
+     * @param object  the spawned object
+     * @param trigger the trigger of the system, must not be an event trigger
+     * @param system  the system
+     * @return the subscription, to unsubscribe when the object is despawned
+     */
+    SystemScheduler.Subscription subscribe(Object3D object, SystemTrigger trigger, Consumer<Object3D> system) {
+        start();
+        return scheduler.subscribe(object, trigger, system, currentTick);
+    }
+    
+    void unsubscribe(SystemScheduler.Subscription subscription) {
+        scheduler.unsubscribe(subscription);
+    }
+    
+    /**
+     * Samples the animator every tick until it has nothing left to play,
+     * starts the engine if it's not already running.
+     *
+     * @param animator the animator of a spawned object
+     */
+    void animate(Animator animator) {
+        if (animator.isRegistered()) return;
+        animator.setRegistered(true);
+        animators.add(animator);
+        start();
+    }
+    
+    /**
+     * Marks the engine as running without scheduling its tick task,
+     * for tests that have no server to schedule it on, see {@link #shutdown()} to reset it.
+     */
+    // Package-private
+    void startWithoutTask() {
+        running = true;
+    }
+    
+    private void start() {
+        if (running) return;
+        running = true;
+        TaskBuilder.create(this::tick).delay(1).interval(1).schedule();
+    }
+    
+    private void tick() {
+        long start = System.nanoTime();
+        currentTick++;
+        renderedObjects = 0;
+        deferredObjects = 0;
+        culledObjects = 0;
+        
+        // Player positions are only read once per tick, instead of once per object
+        viewers.update();
+        
+        // Systems run before the transform pass, so their changes are rendered this tick
+        scheduler.tick(currentTick);
+        
+        // Animations are sampled after systems, so a system can play or stop a clip this tick
+        int animated = 0;
+        for (int i = 0, size = animators.size(); i < size; i++) {
+            Animator animator = animators.get(i);
+            if (!animator.tick()) {
+                animator.setRegistered(false);
+                continue;
+            }
+            animators.set(animated++, animator);
+        }
+        animators.subList(animated, animators.size()).clear();
+        
+        // Despawned objects are removed lazily, by compacting the list in place
+        int size = objects.size();
+        int alive = 0;
+        for (int i = 0; i < size; i++) {
+            Object3D object = objects.get(i);
+            if (!object.isSpawned()) {
+                object.setRegistered(false);
+                continue;
+            }
+            
+            // A single top-down pass, so deep hierarchies are only recalculated once per tick
+            object.updateWorldTransforms();
+            
+            boolean due = object.isDeferred()
+                || (currentTick - object.getSpawnTick()) % object.getRenderInterval() == 0;
+            if (due) dueObjects.add(object);
+            objects.set(alive++, object);
+        }
+        
+        if (renderBudgetNanos > 0) {
+            for (Object3D object : dueObjects) {
+                Matrix4fc transform = object.getWorldTransform();
+                object.setRenderPriority(viewers.distanceSquaredToNearest(
+                    object.getWorld(), transform.m30(), transform.m31(), transform.m32()));
+            }
+            dueObjects.sort(RENDER_ORDER);
+        }
+        
+        // The budget only covers rendering, the work before it would otherwise starve every object
+        long renderStart = System.nanoTime();
+        boolean progressed = false;
+        for (Object3D object : dueObjects) {
+            if (!object.isSpawned()) {
+                object.setDeferredTick(-1);
+                continue;
+            }
+            // The first object is always rendered, so the longest deferred one makes progress every tick
+            boolean overBudget = renderBudgetNanos > 0 && progressed
+                && System.nanoTime() - renderStart >= renderBudgetNanos;
+            if (overBudget) {
+                if (!object.isDeferred()) object.setDeferredTick(currentTick);
+                deferredObjects++;
+                continue;
+            }
+            
+            progressed = true;
+            object.setDeferredTick(-1);
+            if (!viewers.isAnyPlayerInside(object.getWorld(), object.getSubtreeBounds())) {
+                culledObjects++;
+                continue;
+            }
+            try {
+                object.render(viewers);
+                renderedObjects++;
+            } catch (RuntimeException e) {
+                Log.error("An error occurred while rendering an object, despawning it!");
+                e.printStackTrace();
+                despawnBroken(object);
+            }
+        }
+        dueObjects.clear();
+        entities.release(currentTick);
+        collisions.release();
+        
+        try {
+            particles.flush(viewers);
+        } catch (RuntimeException e) {
+            Log.error("An error occurred while sending particles!");
+            e.printStackTrace();
+        }
+        
+        // Objects spawned while rendering were appended after the old size
+        for (int i = size; i < objects.size(); i++) {
+            objects.set(alive++, objects.get(i));
+        }
+        objects.subList(alive, objects.size()).clear();
+        
+        lastTickNanos = System.nanoTime() - start;
+        tickDurations[(int) (currentTick % TICKS_TO_AVERAGE)] = lastTickNanos;
+    }
+    
+    private void despawnBroken(Object3D object) {
+        try {
+            object.despawn();
+        } catch (RuntimeException e) {
+            Log.error("An error occurred while despawning a broken object!");
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * @return true if the engine is running, it starts when the first object is spawned
+     */
+    @Kapi
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Particles emitted by objects are collected in this batch
+     * and sent at the end of every engine tick.
+     *
+     * @return the particle batch of the engine
+     */
+    @Kapi
+    public ParticleBatch getParticleBatch() {
+        return particles;
+    }
+    
+    /**
+     * Gets all spawned objects that have all the given components.<br>
+     * <br>
+     * Every component keeps an index of the spawned objects that have it,
+     * updated when components are set or removed, so only objects that have the rarest
+     * of the given components are checked, no matter how many objects are spawned.<br>
+     * Children are included, despawned objects are not.<br>
+     * <br>
+     * Example, a global system that accelerates every object that has a velocity and acceleration:
+     * <pre>{@code
+     *     for (Object3D object : Engine.getInstance().query(Component.VELOCITY_KEY, Component.ACCELERATION_KEY)) {
+     *         System.acceleration(object);
+     *     }
+     * }</pre>
+     *
+     * @param components the components the objects must have
+     * @return a new list of the matching objects, empty if no components are given
+     */
+    @Kapi
+    public List<Object3D> query(ComponentKey<?>... components) {
+        return componentIndex.query(components);
+    }
+    
+    /**
+     * Gets all spawned objects that have all the given components,
+     * see {@link #query(ComponentKey[])} for more info.
+     *
+     * @param components the names of the components the objects must have
+     * @return a new list of the matching objects, empty if no components are given
+     */
+    @Kapi
+    public List<Object3D> query(String... components) {
+        ComponentKey<?>[] keys = new ComponentKey<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            ComponentKey<?> key = ComponentKey.find(components[i]);
+            // A component that was never set has no objects
+            if (key == null) return new ArrayList<>();
+            keys[i] = key;
+        }
+        return componentIndex.query(keys);
+    }
+    
+    /**
+     * Gets all entities whose bounding box overlaps the given box.<br>
+     * <br>
+     * A world with few queries per tick is answered by {@link World#getNearbyEntities(BoundingBox)},
+     * which scans the entities of every chunk in the box on each call.
+     * A world with many queries has its entities put in a spatial hash once per tick,
+     * and every query in that tick only checks entities in the same cells of the hash.
+     * Many colliders cost barely more than one.<br>
+     * <br>
+     * Note: in a hashed world, entity positions are from when the world was hashed,
+     * entities that moved or spawned later in the same tick are not seen until the next tick
+     *
+     * @param world the world to search in
+     * @param box   the box to search in
+     * @return a new list of the entities
+     */
+    @Kapi
+    public List<Entity> getNearbyEntities(World world, BoundingBox box) {
+        List<Entity> result = new ArrayList<>();
+        getNearbyEntities(world, box, result);
+        return result;
+    }
+    
+    /**
+     * Gets all entities whose bounding box overlaps the given box,
+     * see {@link #getNearbyEntities(World, BoundingBox)} for more info.
+     *
+     * @param world       the world to search in
+     * @param box         the box to search in
+     * @param destination the collection to add the entities to, so it can be reused between calls
+     */
+    @Kapi
+    public void getNearbyEntities(World world, BoundingBox box, Collection<Entity> destination) {
+        entities.query(world, currentTick,
+            box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(), destination);
+    }
+    
+    /**
+     * Gets all spawned objects whose collision box overlaps the collision box of the given object,
+     * see {@link Object3D#getCollisionBox()}.<br>
+     * <br>
+     * On the first call of a tick, the boxes of all spawned objects with a collision shape
+     * are sorted along the x-axis and swept once to find every overlapping pair (sweep and prune),
+     * every other call in that tick only looks up the pairs of the object.<br>
+     * <br>
+     * Note: positions are from the first call of the tick,
+     * objects that move later in the same tick are not seen until the next tick
+     *
+     * @param object the object to get the collisions of
+     * @return a new list of the objects, empty if the object has no collision shape
+     */
+    @Kapi
+    public List<Object3D> getCollidingObjects(Object3D object) {
+        return collisions.getCollisions(object, componentIndex, currentTick);
+    }
+    
+    ComponentIndex getComponentIndex() {
+        return componentIndex;
+    }
+    
+    /**
+     * Sets the maximum time the engine may spend rendering each tick.<br>
+     * <br>
+     * Objects that don't fit in the budget are deferred to the next tick,
+     * deferred objects are rendered before any other object, the longest deferred first.
+     * At least one object is rendered every tick, even if it doesn't fit in the budget,
+     * so every deferred object is eventually rendered.<br>
+     * <br>
+     * Only rendering counts towards the budget,
+     * systems, animations and transform updates run every tick regardless.
+     * The rest are rendered in order of distance to the nearest player,
+     * so effects near players are the last to be deferred.<br>
+     * <br>
+     * A budget of 0 means there is no budget, all objects are rendered every tick.
+     *
+     * @param milliseconds the budget in milliseconds, 0 for no budget
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    @Kapi
+    public void setRenderBudget(double milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("Render budget cannot be negative");
+        }
+        this.renderBudgetNanos = (long) (milliseconds * 1_000_000);
+    }
+    
+    /**
+     * @return the render budget in milliseconds, 0 if there is no budget
+     * @see #setRenderBudget(double)
+     */
+    @Kapi
+    public double getRenderBudget() {
+        return renderBudgetNanos / 1_000_000.0;
+    }
+    
+    /**
+     * @return the number of ticks the engine has been running for
+     */
+    @Kapi
+    public long getCurrentTick() {
+        return currentTick;
+    }
+    
+    /**
+     * @return the number of spawned root objects, children are not counted
+     */
+    @Kapi
+    public int getObjectCount() {
+        return objects.size();
+    }
+    
+    /**
+     * @return the number of spawned objects with an animation playing, children are counted
+     */
+    @Kapi
+    public int getAnimatedObjectCount() {
+        return animators.size();
+    }
+    
+    /**
+     * @return the number of distinct (system, trigger) pairs the engine runs,
+     *     each one is iterated at most once per tick regardless of how many objects use it
+     */
+    @Kapi
+    public int getSystemGroupCount() {
+        return scheduler.getGroupCount();
+    }
+    
+    /**
+     * @return the number of interval and delay systems of spawned objects,
+     *     counted once per object per system
+     */
+    @Kapi
+    public int getSystemSubscriptionCount() {
+        return scheduler.getSubscriptionCount();
+    }
+    
+    /**
+     * @return the number of root objects that were rendered in the last tick
+     */
+    @Kapi
+    public int getRenderedObjectCount() {
+        return renderedObjects;
+    }
+    
+    /**
+     * @return the number of root objects that were deferred to the next tick
+     *     in the last tick, due to the render budget
+     */
+    @Kapi
+    public int getDeferredObjectCount() {
+        return deferredObjects;
+    }
+    
+    /**
+     * @return the number of root objects that were skipped in the last tick,
+     *     because no player was close enough to see them or any of their children
+     */
+    @Kapi
+    public int getCulledObjectCount() {
+        return culledObjects;
+    }
+    
+    /**
+     * @return the time in nanoseconds the last engine tick took
+     */
+    @Kapi
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * @return the average time in nanoseconds of an engine tick, over the last 20 ticks
+     */
+    @Kapi
+    public long getAverageTickNanos() {
+        long total = 0;
+        for (long duration : tickDurations) {
+            total += duration;
+        }
+        return total / TICKS_TO_AVERAGE;
+    }
+}
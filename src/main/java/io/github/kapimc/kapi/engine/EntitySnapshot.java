@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+
+/**
+ * Answers nearby entity queries, with a spatial hash of a world's entities built at most once per engine tick.<br>
+ * <br>
+ * Hashing a world visits all of its entities, which only pays off if the world is queried many times.
+ * A world with few queries is answered by {@link World#getNearbyEntities(BoundingBox)},
+ * which only scans the chunks in the box.
+ * Once a world gets {@value #MIN_QUERIES_TO_HASH} queries in a tick, it's hashed for the rest of the tick,
+ * and from the start of the next tick if it gets as many again.
+ * Worlds without colliders are never scanned.
+ */
+final class EntitySnapshot {
+    
+    private static final double CELL_SIZE = 4;
+    private static final int MIN_QUERIES_TO_HASH = 16;
+    
+    private final IdentityHashMap<World,WorldEntities> worlds;
+    
+    EntitySnapshot() {
+        this.worlds = new IdentityHashMap<>();
+    }
+    
+    /**
+     * Adds all entities of the world whose bounding box overlaps the given box to the destination.
+     *
+     * @param tick the current engine tick, queries are counted and the hash is rebuilt per tick
+     */
+    void query(
+        World world, long tick,
+        double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+        Collection<Entity> destination
+    ) {
+        WorldEntities entities = worlds.computeIfAbsent(world, k -> new WorldEntities());
+        if (entities.tick != tick) {
+            entities.tick = tick;
+            entities.previousQueries = entities.queries;
+            entities.queries = 0;
+            entities.hashed = false;
+            entities.hash.clear();
+        }
+        entities.queries++;
+        
+        if (!entities.hashed) {
+            if (entities.queries < MIN_QUERIES_TO_HASH && entities.previousQueries < MIN_QUERIES_TO_HASH) {
+                destination.addAll(world.getNearbyEntities(new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ)));
+                return;
+            }
+            entities.hashed = true;
+            for (Entity entity : world.getEntities()) {
+                BoundingBox box = entity.getBoundingBox();
+                entities.hash.add(
+                    entity, box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ());
+            }
+        }
+        entities.hash.query(minX, minY, minZ, maxX, maxY, maxZ, destination);
+    }
+    
+    /**
+     * Called at the end of every engine tick, so removed entities and unloaded worlds aren't kept in memory.<br>
+     * Worlds that were queried this tick keep their hash, to reuse its memory next tick.
+     *
+     * @param tick the current engine tick
+     */
+    void release(long tick) {
+        worlds.values().removeIf(entities -> entities.tick != tick);
+        for (WorldEntities entities : worlds.values()) {
+            // The query count is kept, to decide whether to hash the world from the start of the next tick
+            entities.hash.clear();
+            entities.hashed = false;
+            entities.tick = -1;
+        }
+    }
+    
+    private static final class WorldEntities {
+        private final SpatialHash<Entity> hash = new SpatialHash<>(CELL_SIZE);
+        private long tick = -1;
+        private boolean hashed;
+        private int queries;
+        private int previousQueries;
+    }
+}
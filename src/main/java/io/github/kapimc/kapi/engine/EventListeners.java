@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The event systems of a template or an object, stored in an array per event id,
+ * see {@link SystemTrigger#eventId(String)}.<br>
+ * <br>
+ * Listener arrays are never modified, adding a listener replaces the array of its event,
+ * so copies can share arrays and an event can add listeners while it's being triggered.
+ */
+final class EventListeners {
+    
+    @SuppressWarnings("unchecked")
+    private static final Consumer<Object3D>[] NONE = new Consumer[0];
+    
+    private Consumer<Object3D>[][] listeners;
+    
+    @SuppressWarnings("unchecked")
+    EventListeners() {
+        this.listeners = new Consumer[0][];
+    }
+    
+    private EventListeners(Consumer<Object3D>[][] listeners) {
+        this.listeners = listeners;
+    }
+    
+    void add(int event, Consumer<Object3D> listener) {
+        if (event >= listeners.length) {
+            int oldLength = listeners.length;
+            listeners = Arrays.copyOf(listeners, Math.max(event + 1, oldLength * 2));
+            Arrays.fill(listeners, oldLength, listeners.length, NONE);
+        }
+        Consumer<Object3D>[] current = listeners[event];
+        Consumer<Object3D>[] added = Arrays.copyOf(current, current.length + 1);
+        added[current.length] = listener;
+        listeners[event] = added;
+    }
+    
+    /**
+     * Adds all listeners of another table, after the listeners of this table.
+     */
+    void addAll(EventListeners other) {
+        for (int event = 0; event < other.listeners.length; event++) {
+            for (Consumer<Object3D> listener : other.listeners[event]) {
+                add(event, listener);
+            }
+        }
+    }
+    
+    /**
+     * @return the listeners of the event, must not be modified
+     */
+    Consumer<Object3D>[] get(int event) {
+        return event < listeners.length ? listeners[event] : NONE;
+    }
+    
+    /**
+     * @return a copy that shares the listener arrays, adding to either doesn't affect the other
+     */
+    EventListeners copy() {
+        return new EventListeners(listeners.clone());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+/**
+ * The math of {@link AnimationClip}s, on plain float arrays so sampling doesn't allocate.<br>
+ * A track is a list of keyframes sorted by time, each one with {@code stride} values
+ * and the easing used to reach the next keyframe.
+ */
+final class Keyframes {
+    
+    private Keyframes() {
+        throw new AssertionError("Keyframes should not be instantiated");
+    }
+    
+    /**
+     * @return the index of the last keyframe at or before the time, -1 if the time is before the first keyframe
+     */
+    static int findKey(float[] times, int count, float time) {
+        int low = 0;
+        int high = count - 1;
+        int result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= time) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Samples a track, each value is interpolated on its own.<br>
+     * Before the first keyframe and after the last one, the value of that keyframe is used.
+     *
+     * @param out    the array to write the {@code stride} sampled values to
+     * @param offset the index in the array to start writing at
+     */
+    static void sample(
+        float[] times, float[] values, Easing[] easings, int count, int stride,
+        float time, float[] out, int offset
+    ) {
+        int key = findKey(times, count, time);
+        if (key < 0 || key >= count - 1) {
+            System.arraycopy(values, Math.max(key, 0) * stride, out, offset, stride);
+            return;
+        }
+        float progress = easings[key].apply((time - times[key]) / (times[key + 1] - times[key]));
+        int from = key * stride;
+        int to = from + stride;
+        for (int i = 0; i < stride; i++) {
+            out[offset + i] = values[from + i] + (values[to + i] - values[from + i]) * progress;
+        }
+    }
+    
+    /**
+     * Samples a track of quaternions (x, y, z, w),
+     * interpolated along the shortest path and normalized (nlerp).
+     *
+     * @param out    the array to write the sampled quaternion to
+     * @param offset the index in the array to start writing at
+     */
+    static void sampleRotation(
+        float[] times, float[] values, Easing[] easings, int count,
+        float time, float[] out, int offset
+    ) {
+        int key = findKey(times, count, time);
+        if (key < 0 || key >= count - 1) {
+            System.arraycopy(values, Math.max(key, 0) * 4, out, offset, 4);
+            return;
+        }
+        float progress = easings[key].apply((time - times[key]) / (times[key + 1] - times[key]));
+        int from = key * 4;
+        int to = from + 4;
+        float sign = dot(values, from, values, to) < 0 ? -1 : 1;
+        for (int i = 0; i < 4; i++) {
+            out[offset + i] = values[from + i] + (sign * values[to + i] - values[from + i]) * progress;
+        }
+        normalize(out, offset);
+    }
+    
+    static float dot(float[] a, int aOffset, float[] b, int bOffset) {
+        return a[aOffset] * b[bOffset] + a[aOffset + 1] * b[bOffset + 1]
+            + a[aOffset + 2] * b[bOffset + 2] + a[aOffset + 3] * b[bOffset + 3];
+    }
+    
+    /**
+     * Normalizes a quaternion in place, a zero quaternion becomes the identity.
+     */
+    static void normalize(float[] quaternion, int offset) {
+        float lengthSquared = dot(quaternion, offset, quaternion, offset);
+        if (lengthSquared == 0) {
+            quaternion[offset] = quaternion[offset + 1] = quaternion[offset + 2] = 0;
+            quaternion[offset + 3] = 1;
+            return;
+        }
+        float inverseLength = (float) (1 / Math.sqrt(lengthSquared));
+        for (int i = 0; i < 4; i++) {
+            quaternion[offset + i] *= inverseLength;
+        }
+    }
+    
+    /**
+     * Writes translation * rotation * scale as a 4x4 matrix in column-major order,
+     * as read by {@code Matrix4f#set(float[])}.
+     *
+     * @param translation the translation (x, y, z) at index 0
+     * @param rotation    the normalized quaternion (x, y, z, w) at index 0
+     * @param scale       the scale (x, y, z) at index 0
+     * @param out         the array to write the 16 values of the matrix to
+     */
+    static void compose(float[] translation, float[] rotation, float[] scale, float[] out) {
+        float x = rotation[0];
+        float y = rotation[1];
+        float z = rotation[2];
+        float w = rotation[3];
+        float sx = scale[0];
+        float sy = scale[1];
+        float sz = scale[2];
+        
+        out[0] = (1 - 2 * (y * y + z * z)) * sx;
+        out[1] = 2 * (x * y + z * w) * sx;
+        out[2] = 2 * (x * z - y * w) * sx;
+        out[3] = 0;
+        out[4] = 2 * (x * y - z * w) * sy;
+        out[5] = (1 - 2 * (x * x + z * z)) * sy;
+        out[6] = 2 * (y * z + x * w) * sy;
+        out[7] = 0;
+        out[8] = 2 * (x * z + y * w) * sz;
+        out[9] = 2 * (y * z - x * w) * sz;
+        out[10] = (1 - 2 * (x * x + y * y)) * sz;
+        out[11] = 0;
+        out[12] = translation[0];
+        out[13] = translation[1];
+        out[14] = translation[2];
+        out[15] = 1;
+    }
+}
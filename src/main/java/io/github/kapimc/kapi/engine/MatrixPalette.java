@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+/**
+ * The math of {@link Rig}s, on affine 4x4 matrices stored in column-major order in plain float arrays,
+ * 16 floats per matrix, so a whole skeleton is a single array.<br>
+ * The bottom row of every matrix is assumed to be (0, 0, 0, 1) and is not read.
+ */
+final class MatrixPalette {
+    
+    static final int STRIDE = 16;
+    
+    private MatrixPalette() {
+        throw new AssertionError("MatrixPalette should not be instantiated");
+    }
+    
+    /**
+     * Evaluates a skeleton in a single pass,
+     * every bone's parent must come before it so its world matrix is already known.
+     *
+     * @param parents       the parent of each bone, -1 for roots
+     * @param locals        the matrix of each bone relative to its parent
+     * @param inverseBinds  the inverse of each bone's world matrix in the bind pose
+     * @param count         the number of bones
+     * @param worlds        the array to write the world matrix of each bone to
+     * @param palette       the array to write the skinning matrix of each bone to,
+     *                      which moves a point from the bind pose to the current pose
+     */
+    static void evaluate(
+        int[] parents, float[] locals, float[] inverseBinds, int count,
+        float[] worlds, float[] palette
+    ) {
+        for (int i = 0, offset = 0; i < count; i++, offset += STRIDE) {
+            int parent = parents[i];
+            if (parent < 0) {
+                System.arraycopy(locals, offset, worlds, offset, STRIDE);
+            } else {
+                mulAffine(worlds, parent * STRIDE, locals, offset, worlds, offset);
+            }
+            mulAffine(worlds, offset, inverseBinds, offset, palette, offset);
+        }
+    }
+    
+    /**
+     * Writes a * b, the output may be the same matrix as b but must not overlap a.
+     */
+    static void mulAffine(float[] a, int aOffset, float[] b, int bOffset, float[] out, int outOffset) {
+        float a00 = a[aOffset], a01 = a[aOffset + 1], a02 = a[aOffset + 2];
+        float a10 = a[aOffset + 4], a11 = a[aOffset + 5], a12 = a[aOffset + 6];
+        float a20 = a[aOffset + 8], a21 = a[aOffset + 9], a22 = a[aOffset + 10];
+        float a30 = a[aOffset + 12], a31 = a[aOffset + 13], a32 = a[aOffset + 14];
+        for (int column = 0; column < 4; column++) {
+            int b0 = bOffset + column * 4;
+            int o = outOffset + column * 4;
+            float x = b[b0], y = b[b0 + 1], z = b[b0 + 2];
+            float w = column == 3 ? 1 : 0;
+            out[o] = a00 * x + a10 * y + a20 * z + a30 * w;
+            out[o + 1] = a01 * x + a11 * y + a21 * z + a31 * w;
+            out[o + 2] = a02 * x + a12 * y + a22 * z + a32 * w;
+            out[o + 3] = w;
+        }
+    }
+    
+    /**
+     * Writes the inverse of an affine matrix, the output must not overlap the input.
+     *
+     * @throws IllegalArgumentException if the matrix is not invertible (has a scale of 0)
+     */
+    static void invertAffine(float[] m, int offset, float[] out, int outOffset) {
+        float m00 = m[offset], m01 = m[offset + 1], m02 = m[offset + 2];
+        float m10 = m[offset + 4], m11 = m[offset + 5], m12 = m[offset + 6];
+        float m20 = m[offset + 8], m21 = m[offset + 9], m22 = m[offset + 10];
+        float m30 = m[offset + 12], m31 = m[offset + 13], m32 = m[offset + 14];
+        
+        // The inverse of the 3x3 part is its adjugate divided by its determinant
+        float c00 = m11 * m22 - m12 * m21;
+        float c01 = m02 * m21 - m01 * m22;
+        float c02 = m01 * m12 - m02 * m11;
+        float determinant = m00 * c00 + m10 * c01 + m20 * c02;
+        if (determinant == 0) {
+            throw new IllegalArgumentException("Matrix is not invertible");
+        }
+        float inverse = 1 / determinant;
+        float i00 = c00 * inverse;
+        float i01 = c01 * inverse;
+        float i02 = c02 * inverse;
+        float i10 = (m12 * m20 - m10 * m22) * inverse;
+        float i11 = (m00 * m22 - m02 * m20) * inverse;
+        float i12 = (m02 * m10 - m00 * m12) * inverse;
+        float i20 = (m10 * m21 - m11 * m20) * inverse;
+        float i21 = (m01 * m20 - m00 * m21) * inverse;
+        float i22 = (m00 * m11 - m01 * m10) * inverse;
+        
+        out[outOffset] = i00;
+        out[outOffset + 1] = i01;
+        out[outOffset + 2] = i02;
+        out[outOffset + 3] = 0;
+        out[outOffset + 4] = i10;
+        out[outOffset + 5] = i11;
+        out[outOffset + 6] = i12;
+        out[outOffset + 7] = 0;
+        out[outOffset + 8] = i20;
+        out[outOffset + 9] = i21;
+        out[outOffset + 10] = i22;
+        out[outOffset + 11] = 0;
+        out[outOffset + 12] = -(i00 * m30 + i10 * m31 + i20 * m32);
+        out[outOffset + 13] = -(i01 * m30 + i11 * m31 + i21 * m32);
+        out[outOffset + 14] = -(i02 * m30 + i12 * m31 + i22 * m32);
+        out[outOffset + 15] = 1;
+    }
+}
@@ -10,15 +10,18 @@ package io.github.kapimc.kapi.engine;
 import io.github.kapimc.kapi.annotations.Kapi;
 import io.github.kapimc.kapi.data.Option;
 import io.github.kapimc.kapi.data.Pair;
+import io.github.kapimc.kapi.engine.ecs.Component;
+import io.github.kapimc.kapi.engine.ecs.ComponentKey;
+import io.github.kapimc.kapi.engine.ecs.ComponentStorage;
 import io.github.kapimc.kapi.engine.ecs.EcsEntity;
 import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
-import io.github.kapimc.kapi.utility.TaskBuilder;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
+import org.joml.Vector3fc;
 import org.joml.Matrix4f;
 import org.joml.Matrix4fc;
-import org.joml.Vector3f;
 import org.jspecify.annotations.Nullable;
 
 import java.util.*;
@@ -31,17 +34,52 @@ import java.util.stream.Stream;
  */
 @Kapi
 public final class Object3D implements EcsEntity {
-    private final World world;
+    private static final int SPAWN_EVENT = SystemTrigger.ON_SPAWN.getEventId();
+    private static final int DESPAWN_EVENT = SystemTrigger.ON_DESPAWN.getEventId();
+    private static final int SCALE_CHANGED_EVENT = SystemTrigger.ON_SCALE_CHANGED.getEventId();
+    
+    private final Template3D template;
+    private final CompiledTemplate compiled;
+    private World world;
     private final Matrix4f transform;
-    private @Nullable Matrix4fc cachedWorldTransform;
-    private final List<Point> points;
+    private final Matrix4f worldTransform;
+    private boolean transformDirty;
+    private int worldTransformVersion;
+    private int parentWorldTransformVersion;
+    private @Nullable Animator animator;
+    private PointCloud points;
+    private final double[] levelOfDetailDistancesSquared;
+    private final PointCloud[] levelsOfDetail;
+    private final @Nullable RigPose rigPose;
     private final @Nullable Object3D parent;
-    private final HashMap<String,Object3D> children;
-    private final HashMap<String,@Nullable Object> components;
-    private final HashMap<String,@Nullable List<Consumer<Object3D>>> events;
+    private final HashMap<String,Object3D> childrenByName;
+    private Object3D[] children;
+    private int childCount;
+    private @Nullable String name;
+    private int childIndex;
+    // Only used by roots, the whole tree in depth-first order, see updateWorldTransforms
+    private Object3D @Nullable [] hierarchy;
+    private int @Nullable [] hierarchyParents;
+    private int hierarchySize;
+    private boolean hierarchyDirty;
+    private final ComponentStorage components;
+    private int[] indexSlots;
+    private int collisionSlot;
+    private EventListeners events;
     private final List<Pair<SystemTrigger,Consumer<Object3D>>> tasks;
-    private boolean cancel;
+    private final List<SystemScheduler.Subscription> subscriptions;
+    private boolean spawned;
+    private boolean pooled;
+    private boolean registered;
+    private int renderInterval;
+    private long spawnTick;
+    private long deferredTick;
+    private double renderPriority;
     private Visibility visibility;
+    private final float[] matrixBuffer;
+    private final PointBuffer worldPoints;
+    private final CullingBounds bounds;
+    private final CullingBounds subtreeBounds;
     
     /**
      * Creates a new instance of this object
@@ -52,30 +90,171 @@ public final class Object3D implements EcsEntity {
      * @param parent    The parent of this object, null if this object has no parent
      */
     public Object3D(
-        Template3D template, World world, Matrix4f transform,
+        Template3D template, World world, Matrix4fc transform,
         @Nullable Object3D parent
     ) {
+        this.template = template;
         this.parent = parent;
         this.world = world;
         this.transform = new Matrix4f(transform);
-        this.points = new ArrayList<>();
-        template.getPoints().forEach(point -> this.points.add(new Point(point)));
+        this.worldTransform = new Matrix4f();
+        this.transformDirty = true;
+        this.parentWorldTransformVersion = -1;
+        this.compiled = template.compile();
+        this.points = compiled.points.instantiate();
+        this.levelOfDetailDistancesSquared = compiled.levelOfDetailDistancesSquared;
+        this.levelsOfDetail = new PointCloud[compiled.levelsOfDetail.length];
+        for (int i = 0; i < levelsOfDetail.length; i++) {
+            levelsOfDetail[i] = compiled.levelsOfDetail[i].instantiate();
+        }
+        this.rigPose = compiled.rig == null ? null : new RigPose(compiled.rig, compiled.points);
+        this.matrixBuffer = new float[16];
+        this.worldPoints = new PointBuffer(points.size());
+        this.bounds = new CullingBounds();
+        this.subtreeBounds = new CullingBounds();
         
-        this.components = new HashMap<>();
-        this.events = new HashMap<>(template.getEvents());
-        this.tasks = new ArrayList<>(template.getTasks());
+        this.components = new ComponentStorage();
+        this.indexSlots = new int[0];
+        this.collisionSlot = -1;
+        this.events = compiled.events.copy();
+        this.tasks = new ArrayList<>(compiled.tasks);
+        this.subscriptions = new ArrayList<>();
         
-        this.children = new HashMap<>();
+        this.childrenByName = new HashMap<>();
+        this.children = new Object3D[0];
+        this.hierarchyDirty = true;
         this.visibility = parent == null ? Visibility.VISIBLE : Visibility.INHERIT;
-        template.getChildren().forEach(entry -> {
-            Pair<Matrix4f,Template3D> value = entry.getValue();
-            // IntelliJ still doesn't handle Jspecify with generics well
-            // Pair doesn't annotate either of its generics with @Nullable
-            assert value.getFirst() != null;
-            assert value.getSecond() != null;
-            Object3D child = value.getSecond().newInstance(world, value.getFirst(), this);
-            this.children.put(entry.getKey(), child);
-        });
+        this.deferredTick = -1;
+        instantiateChildren(compiled);
+    }
+    
+    private void instantiateChildren(CompiledTemplate compiled) {
+        children = new Object3D[compiled.childNames.length];
+        for (int i = 0; i < compiled.childNames.length; i++) {
+            Object3D child = new Object3D(compiled.childTemplates[i], world, compiled.childTransforms[i], this);
+            putChild(compiled.childNames[i], child);
+        }
+    }
+    
+    private void putChild(String name, Object3D child) {
+        child.name = name;
+        Object3D replaced = childrenByName.put(name, child);
+        if (replaced != null) {
+            // Same name, takes the place of the old child
+            child.childIndex = replaced.childIndex;
+            children[child.childIndex] = child;
+            replaced.name = null;
+        } else {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(4, childCount * 2));
+            }
+            child.childIndex = childCount;
+            children[childCount++] = child;
+        }
+        markHierarchyDirty();
+    }
+    
+    private void removeChildAt(int index) {
+        Object3D child = children[index];
+        childrenByName.remove(child.name);
+        child.name = null;
+        // Move the last child into the slot, so the array stays dense
+        Object3D moved = children[--childCount];
+        children[index] = moved;
+        moved.childIndex = index;
+        children[childCount] = null;
+        markHierarchyDirty();
+    }
+    
+    private void clearChildren() {
+        for (int i = 0; i < childCount; i++) {
+            children[i].name = null;
+        }
+        Arrays.fill(children, 0, childCount, null);
+        childCount = 0;
+        childrenByName.clear();
+        markHierarchyDirty();
+    }
+    
+    private void markHierarchyDirty() {
+        Object3D root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        root.hierarchyDirty = true;
+    }
+    
+    /**
+     * Resets a pooled instance to the state of a new instance of its template,
+     * see {@link Template3D#setPoolSize(int)}.<br>
+     * Only what the instance modified is recreated, unmodified points and children are kept.
+     *
+     * @param world     The world of the object
+     * @param transform The transform of the object, copied
+     */
+    // Package-private
+    void reuse(World world, Matrix4fc transform) {
+        this.pooled = false;
+        this.world = world;
+        this.transform.set(transform);
+        this.transformDirty = true;
+        this.parentWorldTransformVersion = -1;
+        if (animator != null) {
+            animator.stopAll();
+        }
+        if (rigPose != null) {
+            rigPose.reset();
+        }
+        
+        // Modifying the template clears its pool, so this is still the template's snapshot
+        if (!points.isShared()) {
+            points = compiled.points.instantiate();
+        }
+        for (int i = 0; i < levelsOfDetail.length; i++) {
+            if (!levelsOfDetail[i].isShared()) {
+                levelsOfDetail[i] = compiled.levelsOfDetail[i].instantiate();
+            }
+        }
+        
+        components.clear();
+        Arrays.fill(indexSlots, -1);
+        collisionSlot = -1;
+        events = compiled.events.copy();
+        tasks.clear();
+        tasks.addAll(compiled.tasks);
+        visibility = parent == null ? Visibility.VISIBLE : Visibility.INHERIT;
+        deferredTick = -1;
+        
+        // Children are only recreated if the instance added, removed or replaced any of them
+        boolean childrenChanged = compiled.childNames.length != childCount;
+        for (int i = 0; i < compiled.childNames.length && !childrenChanged; i++) {
+            Object3D child = childrenByName.get(compiled.childNames[i]);
+            // A child whose template was modified since is recreated, its snapshot is outdated
+            childrenChanged = child == null || child.compiled != compiled.childTemplates[i].compile();
+        }
+        if (childrenChanged) {
+            clearChildren();
+            instantiateChildren(compiled);
+            return;
+        }
+        for (int i = 0; i < compiled.childNames.length; i++) {
+            childrenByName.get(compiled.childNames[i]).reuse(world, compiled.childTransforms[i]);
+        }
+    }
+    
+    // Package-private
+    boolean isPooled() {
+        return pooled;
+    }
+    
+    // Package-private
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+    
+    // Package-private
+    boolean isCompiledFrom(CompiledTemplate snapshot) {
+        return compiled == snapshot;
     }
     
     /**
@@ -93,7 +272,7 @@ public final class Object3D implements EcsEntity {
     /**
      * Get the transform of this object<br>
      * <br>
-     * Note: this method invalidates the cached world transform,
+     * Note: this method marks the world transform as dirty,
      * as it's not possible to know if the transform was modified or not,
      * for more info see {@link #getWorldTransform()}<br>
      * <br>
@@ -110,14 +289,14 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public Matrix4f getMutableTransform() {
-        invalidateCachedWorldTransform();
+        transformDirty = true;
         return transform;
     }
     
     /**
      * Modifies this object's transform<br>
      * <br>
-     * Note: this method invalidates the cached world transform,
+     * Note: this method marks the world transform as dirty,
      * for more info see {@link #getWorldTransform()}<br>
      * <br>
      * If the scale is modified, the event {@link SystemTrigger#SCALE_CHANGED_EVENT}
@@ -130,45 +309,187 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public void transform(Consumer<Matrix4f> transformer) {
-        Vector3f scale = new Vector3f();
-        transform.getScale(scale);
+        // The squared lengths of the columns, comparing them is enough without the square roots
+        float scaleX = lengthSquared(transform.m00(), transform.m01(), transform.m02());
+        float scaleY = lengthSquared(transform.m10(), transform.m11(), transform.m12());
+        float scaleZ = lengthSquared(transform.m20(), transform.m21(), transform.m22());
         
         transformer.accept(transform);
-        invalidateCachedWorldTransform();
+        transformDirty = true;
         
-        Vector3f newScale = new Vector3f();
-        transform.getScale(newScale);
-        if (!newScale.equals(scale, 0)) {
-            triggerEvent(SystemTrigger.SCALE_CHANGED_EVENT);
+        if (scaleX != lengthSquared(transform.m00(), transform.m01(), transform.m02())
+            || scaleY != lengthSquared(transform.m10(), transform.m11(), transform.m12())
+            || scaleZ != lengthSquared(transform.m20(), transform.m21(), transform.m22())) {
+            triggerEvent(SCALE_CHANGED_EVENT);
+        }
+    }
+    
+    private static float lengthSquared(float x, float y, float z) {
+        return x * x + y * y + z * z;
+    }
+    
+    /**
+     * Gets the animator of this object, to play {@link AnimationClip}s on it.<br>
+     * Animations are applied after this object's transform, which stays unchanged,
+     * see {@link Animator} for more info
+     *
+     * @return The animator of this object, created on first use
+     */
+    @Kapi
+    public Animator getAnimator() {
+        if (animator == null) {
+            animator = new Animator(this);
         }
+        return animator;
+    }
+    
+    /**
+     * Gets the pose of the rig of this object's template, see {@link Template3D#setRig(Rig)}.<br>
+     * The pose is applied to the bound displays when the object is rendered.
+     *
+     * @return The pose of this object's rig, null if the template has no rig
+     */
+    @Kapi
+    public @Nullable RigPose getRigPose() {
+        return rigPose;
+    }
+    
+    /**
+     * Marks the world transform as dirty, called by the animator when the pose changes.
+     */
+    // Package-private
+    void markTransformDirty() {
+        transformDirty = true;
     }
     
     /**
      * Get the world transform of this object<br>
      * <br>
-     * Calculates by recursively calling the parent's transform and
-     * multiplying it by this object's transform.<br>
-     * Until the parent is null where the transform is just a cloned
-     * version of this object's transform<br>
+     * Calculated by multiplying the parent's world transform by this object's transform,
+     * if there is no parent, it's a copy of this object's transform.
+     * The pose of the {@link #getAnimator() animator}, if any, is applied last<br>
+     * <br>
+     * Note: this method is cached, modifying the transform only marks it as dirty.
+     * Checking the cache walks up the parents, so it's cheap to call multiple times,
+     * it's only recalculated if this object or one of its parents moved.<br>
+     * The engine also updates the world transforms of all spawned objects
+     * in a single top-down pass every tick, before rendering.<br>
      * <br>
-     * Note: this method is cached, so it's safe to call it multiple times,
-     * although the initial call (or calls after moving the object) will be slower
+     * The returned matrix is reused and updated in place, copy it if you need to keep it
      *
      * @return A read-only interface of this object's world transform
      */
     @Kapi
     public Matrix4fc getWorldTransform() {
-        if (cachedWorldTransform != null) {
-            return cachedWorldTransform;
+        if (parent != null) {
+            parent.getWorldTransform();
         }
+        refreshWorldTransform();
+        return worldTransform;
+    }
+    
+    /**
+     * Updates the world transforms of this root object and all of its descendants.<br>
+     * <br>
+     * The tree is flattened into an array in depth-first order, rebuilt only when children are added or removed,
+     * so parents always come before their children.
+     * A forward loop updates the transforms, each object only checks its direct parent, which was already updated.
+     * A backward loop then merges the culling bounds into the parents,
+     * so every object also knows the bounds of its whole subtree.
+     */
+    void updateWorldTransforms() {
+        if (hierarchyDirty) flattenHierarchy();
+        Object3D[] nodes = hierarchy;
+        int[] parents = hierarchyParents;
+        assert nodes != null && parents != null;
         
-        if (parent != null) {
-            cachedWorldTransform = new Matrix4f(parent.getWorldTransform()).mul(transform);
-        } else {
-            cachedWorldTransform = new Matrix4f(transform);
+        for (int i = 0; i < hierarchySize; i++) {
+            Object3D node = nodes[i];
+            node.refreshWorldTransform();
+            node.updateBounds();
+            node.subtreeBounds.set(node.bounds);
         }
+        for (int i = hierarchySize - 1; i > 0; i--) {
+            nodes[parents[i]].subtreeBounds.include(nodes[i].subtreeBounds);
+        }
+    }
+    
+    private void flattenHierarchy() {
+        hierarchyDirty = false;
+        hierarchySize = 0;
+        appendToHierarchy(this, -1);
+        // Don't keep references to removed children
+        Arrays.fill(hierarchy, hierarchySize, hierarchy.length, null);
+    }
+    
+    private void appendToHierarchy(Object3D node, int parentIndex) {
+        if (hierarchy == null || hierarchyParents == null || hierarchySize == hierarchy.length) {
+            int capacity = Math.max(8, hierarchySize * 2);
+            hierarchy = hierarchy == null ? new Object3D[capacity] : Arrays.copyOf(hierarchy, capacity);
+            hierarchyParents = hierarchyParents == null ? new int[capacity] : Arrays.copyOf(hierarchyParents, capacity);
+        }
+        int index = hierarchySize++;
+        hierarchy[index] = node;
+        hierarchyParents[index] = parentIndex;
+        for (int i = 0; i < node.childCount; i++) {
+            appendToHierarchy(node.children[i], index);
+        }
+    }
+    
+    /**
+     * Places the template's bounding sphere in the world,
+     * and expands it by the render distance of the renderables.
+     */
+    private void updateBounds() {
+        if (points.size() == 0) {
+            bounds.setEmpty();
+            return;
+        }
+        Matrix4f m = worldTransform;
+        double x = points.getBoundsX();
+        double y = points.getBoundsY();
+        double z = points.getBoundsZ();
+        double worldX = m.m00() * x + m.m10() * y + m.m20() * z + m.m30();
+        double worldY = m.m01() * x + m.m11() * y + m.m21() * z + m.m31();
+        double worldZ = m.m02() * x + m.m12() * y + m.m22() * z + m.m32();
         
-        return cachedWorldTransform;
+        // The largest axis scale, so the sphere contains all points no matter the rotation
+        double scaleSquared = Math.max(
+            m.m00() * m.m00() + m.m01() * m.m01() + m.m02() * m.m02(), Math.max(
+                m.m10() * m.m10() + m.m11() * m.m11() + m.m12() * m.m12(),
+                m.m20() * m.m20() + m.m21() * m.m21() + m.m22() * m.m22()
+            )
+        );
+        double reach = points.getBoundsRadius() * Math.sqrt(scaleSquared) + points.getRenderDistance();
+        bounds.set(worldX, worldY, worldZ, reach);
+    }
+    
+    /**
+     * @return the culling bounds of this object and all of its children,
+     *     as of the last time the engine updated them
+     */
+    CullingBounds getSubtreeBounds() {
+        return subtreeBounds;
+    }
+    
+    /**
+     * Recalculates the world transform if needed,
+     * assumes the parent's world transform is up to date.
+     */
+    private void refreshWorldTransform() {
+        if (parent == null) {
+            if (!transformDirty) return;
+            worldTransform.set(transform);
+        } else {
+            if (!transformDirty && parent.worldTransformVersion == parentWorldTransformVersion) return;
+            parent.worldTransform.mul(transform, worldTransform);
+            parentWorldTransformVersion = parent.worldTransformVersion;
+        }
+        if (animator != null && animator.isPosed()) {
+            worldTransform.mul(animator.getPose());
+        }
+        transformDirty = false;
+        worldTransformVersion++;
     }
     
     /**
@@ -180,17 +501,50 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public Location getWorldLocation() {
-        Vector3f position = new Vector3f();
-        getWorldTransform().getTranslation(position);
-        return new Location(world, position.x, position.y, position.z);
+        Matrix4fc worldTransform = getWorldTransform();
+        return new Location(world, worldTransform.m30(), worldTransform.m31(), worldTransform.m32());
+    }
+    
+    /**
+     * Gets the {@value Component#COLLISION_SHAPE} of this object as a box in world space.<br>
+     * A {@link BoundingBox} shape is shifted by the world location,
+     * the other supported types are half the size of the box on each axis, around the world location.<br>
+     * Note: this method MAY be expensive, for more info see {@link #getWorldTransform()}
+     *
+     * @return A new box, or null if the object has no collision shape or the shape's type is not supported
+     */
+    @Kapi
+    public @Nullable BoundingBox getCollisionBox() {
+        Object shape = get(Component.COLLISION_SHAPE);
+        if (shape == null) return null;
+        Matrix4fc worldTransform = getWorldTransform();
+        double x = worldTransform.m30();
+        double y = worldTransform.m31();
+        double z = worldTransform.m32();
+        
+        if (shape instanceof BoundingBox boundingBox) {
+            // Shift a copy, the component is shared between ticks
+            return boundingBox.clone().shift(x, y, z);
+        } else if (shape instanceof Double radius) {
+            return new BoundingBox(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+        } else if (shape instanceof Vector3fc radius) {
+            return new BoundingBox(
+                x - radius.x(), y - radius.y(), z - radius.z(), x + radius.x(), y + radius.y(), z + radius.z());
+        } else if (shape instanceof Vector radius) {
+            return new BoundingBox(
+                x - radius.getX(), y - radius.getY(), z - radius.getZ(),
+                x + radius.getX(), y + radius.getY(), z + radius.getZ());
+        }
+        return null;
     }
     
     /**
      * Gets the points of this object.<br>
-     * Modifying the returned list will affect the object's points.<br>
+     * The returned points are copies, modifying them won't affect the object's points.<br>
      * <br>
      * To add a point, use {@link #addPoint(Point)}<br>
      * To remove a point, use {@link #removePointIf(Predicate)}<br>
+     * To modify points in place, use {@link #getPointCloud()}<br>
      *
      * @return A stream of points
      */
@@ -199,6 +553,20 @@ public final class Object3D implements EcsEntity {
         return points.stream();
     }
     
+    /**
+     * Gets the packed points of this object.<br>
+     * Modifying the returned point cloud will affect the object's points.<br>
+     * <br>
+     * The points are shared with the template until they are modified,
+     * so the first modification copies them.
+     *
+     * @return The point cloud of this object
+     */
+    @Kapi
+    public PointCloud getPointCloud() {
+        return points;
+    }
+    
     /**
      * Adds a point to this object.<br>
      * <br>
@@ -223,7 +591,8 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public void addPoints(List<Point> points) {
-        this.points.addAll(points);
+        this.points.ensureCapacity(this.points.size() + points.size());
+        points.forEach(this.points::add);
     }
     
     /**
@@ -236,7 +605,7 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public void addPoints(Point... points) {
-        this.points.addAll(Arrays.asList(points));
+        addPoints(Arrays.asList(points));
     }
     
     /**
@@ -269,7 +638,7 @@ public final class Object3D implements EcsEntity {
     @Kapi
     public void addChild(String name, Template3D child) {
         Object3D object = child.newInstance(world, new Matrix4f(), this);
-        children.put(name, object);
+        putChild(name, object);
     }
     
     /**
@@ -283,7 +652,7 @@ public final class Object3D implements EcsEntity {
     @Kapi
     public void addChild(String name, Template3D child, Matrix4f transform) {
         Object3D object = child.newInstance(world, transform, this);
-        children.put(name, object);
+        putChild(name, object);
     }
     
     /**
@@ -293,8 +662,11 @@ public final class Object3D implements EcsEntity {
      * @return The removed child's object
      */
     @Kapi
-    public Object3D removeChild(String name) {
-        return children.remove(name);
+    public @Nullable Object3D removeChild(String name) {
+        Object3D child = childrenByName.get(name);
+        if (child == null) return null;
+        removeChildAt(child.childIndex);
+        return child;
     }
     
     /**
@@ -304,7 +676,14 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public void removeChildIf(Predicate<Map.Entry<String,Object3D>> predicate) {
-        children.entrySet().removeIf(predicate);
+        // Backwards, removing moves the last child into the removed slot
+        for (int i = childCount - 1; i >= 0; i--) {
+            Object3D child = children[i];
+            assert child.name != null;
+            if (predicate.test(Map.entry(child.name, child))) {
+                removeChildAt(i);
+            }
+        }
     }
     
     /**
@@ -314,7 +693,7 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public Stream<Map.Entry<String,Object3D>> getChildren() {
-        return children.entrySet().stream();
+        return childrenByName.entrySet().stream();
     }
     
     /**
@@ -325,7 +704,7 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public Option<Object3D> getChild(String name) {
-        return Option.of(children.get(name));
+        return Option.of(childrenByName.get(name));
     }
     
     /**
@@ -336,49 +715,101 @@ public final class Object3D implements EcsEntity {
      */
     @Kapi
     public @Nullable String getNameOfChild(Object3D child) {
-        for (Map.Entry<String,Object3D> entry : children.entrySet()) {
-            if (entry.getValue() == child) return entry.getKey();
-        }
-        return null;
+        // Children know their own name, no need to search
+        return child.parent == this ? child.name : null;
     }
     
-    private void render() {
-        // Render children
-        children.values().forEach(Object3D::render);
+    // Package-private, called by the engine
+    void render(ViewerSnapshot viewers) {
+        // The engine updates world transforms top-down before rendering, so this is usually a no-op
+        refreshWorldTransform();
+        
+        // Render children, skipping whole subtrees no player can see
+        for (int i = 0; i < childCount; i++) {
+            Object3D child = children[i];
+            if (viewers.isAnyPlayerInside(world, child.subtreeBounds)) {
+                child.render(viewers);
+            }
+        }
         
         // Children have render priority
         if (!isVisible()) return;
-        Matrix4fc worldTransform = getWorldTransform();
-        getPoints().forEach(point -> {
-            Vector3f position = worldTransform.transformPosition(point.getVector().toVector3f());
-            point.getRenderable().render(world, Vector.fromJOML(position));
-        });
+        if (!viewers.isAnyPlayerInside(world, bounds)) return;
+        
+        // Only posed once visible, a pose set while culled is applied when a player gets close
+        // Rigged templates have no levels of detail, so the posed points are always the ones rendered
+        if (rigPose != null) {
+            rigPose.apply(points);
+        }
+        PointCloud detail = selectLevelOfDetail(viewers);
+        
+        // Transform all points at once into a reused buffer, so rendering doesn't allocate
+        worldTransform.get(matrixBuffer);
+        detail.transform(matrixBuffer, worldPoints);
         
+        for (int i = 0, size = detail.size(); i < size; i++) {
+            detail.getRenderable(i).render(
+                world, worldPoints.getX(i), worldPoints.getY(i), worldPoints.getZ(i));
+        }
     }
     
-    private boolean shouldContinue() {
-        return !cancel;
+    /**
+     * @return the points to render, based on the distance to the nearest player
+     */
+    private PointCloud selectLevelOfDetail(ViewerSnapshot viewers) {
+        if (levelsOfDetail.length == 0) return points;
+        double distanceSquared = viewers.distanceSquaredToNearest(
+            world, worldTransform.m30(), worldTransform.m31(), worldTransform.m32());
+        // Sorted by distance, so the last one the player is past is the one to use
+        PointCloud selected = points;
+        for (int i = 0; i < levelsOfDetail.length; i++) {
+            if (distanceSquared < levelOfDetailDistancesSquared[i]) break;
+            selected = levelsOfDetail[i];
+        }
+        return selected;
     }
     
     /**
-     * Spawns this object and all of its children
+     * Spawns this object and all of its children<br>
+     * <br>
+     * Root objects (objects without a parent) are rendered by the {@link Engine},
+     * children are rendered by their root.
      *
      * @param renderInterval The interval in ticks between each render call
      *                       Note: This interval does not affect display entities
+     * @throws IllegalArgumentException If the render interval is less than 1
      */
     @Kapi
     public void spawn(int renderInterval) {
-        this.cancel = false;
+        if (renderInterval < 1) {
+            throw new IllegalArgumentException("Render interval must be at least 1");
+        }
+        this.spawned = true;
+        // Spawning a pooled instance directly takes it out of the pool
+        this.pooled = false;
+        ComponentIndex index = Engine.getInstance().getComponentIndex();
+        for (int i = 0, length = components.length(); i < length; i++) {
+            if (components.has(i)) index.add(i, this);
+        }
+        this.renderInterval = renderInterval;
         
-        children.values().forEach(child -> child.spawn(renderInterval));
+        for (int i = 0; i < childCount; i++) {
+            children[i].spawn(renderInterval);
+        }
         
-        points.forEach(point -> point.getRenderable().spawn(
-            world, Vector.fromJOML(
-                getWorldTransform().transformPosition(point.getVector().toVector3f()))
-        ));
+        getWorldTransform().get(matrixBuffer);
+        points.transform(matrixBuffer, worldPoints);
+        for (int i = 0, size = points.size(); i < size; i++) {
+            points.getRenderable(i).spawn(
+                world, new Vector(worldPoints.getX(i), worldPoints.getY(i), worldPoints.getZ(i)));
+        }
         
-        triggerEvent(SystemTrigger.SPAWN_EVENT);
-        triggerEvent(SystemTrigger.SCALE_CHANGED_EVENT);
+        triggerEvent(SPAWN_EVENT);
+        triggerEvent(SCALE_CHANGED_EVENT);
+        
+        // Systems are run by the engine, grouped with every other object that has the same system
+        Engine engine = Engine.getInstance();
+        unsubscribeSystems(engine);
         for (Pair<SystemTrigger,Consumer<Object3D>> task : tasks) {
             // IntelliJ still doesn't handle Jspecify with generics well
             // Pair doesn't annotate either of its generics with @Nullable
@@ -387,17 +818,21 @@ public final class Object3D implements EcsEntity {
             SystemTrigger trigger = task.getFirst();
             Consumer<Object3D> system = task.getSecond();
             assert !trigger.isEvent();
-            TaskBuilder.create(() -> system.accept(this))
-                .delay(trigger.getDelay())
-                .interval(trigger.getPeriod())
-                .whileCondition(this::shouldContinue)
-                .schedule();
+            subscriptions.add(engine.subscribe(this, trigger, system));
+        }
+        if (animator != null) {
+            engine.animate(animator);
+        }
+        if (parent == null) {
+            engine.register(this);
         }
-        TaskBuilder.create(this::render)
-            .delay(1)
-            .interval(1)
-            .whileCondition(this::shouldContinue)
-            .schedule();
+    }
+    
+    private void unsubscribeSystems(Engine engine) {
+        for (SystemScheduler.Subscription subscription : subscriptions) {
+            engine.unsubscribe(subscription);
+        }
+        subscriptions.clear();
     }
     
     /**
@@ -411,18 +846,35 @@ public final class Object3D implements EcsEntity {
     }
     
     /**
-     * Despawns this object and all of its children
+     * Despawns this object and all of its children<br>
+     * <br>
+     * If the template has a pool, see {@link Template3D#setPoolSize(int)},
+     * a root object is returned to it and may be reused by the next new instance,
+     * don't use it after despawning it
      */
     @Kapi
     public void despawn() {
-        this.cancel = true;
-        points.forEach(point -> point.getRenderable().despawn(
-            world, Vector.fromJOML(
-                getWorldTransform().transformPosition(point.getVector().toVector3f()))
-        ));
-        children.values().forEach(Object3D::despawn);
+        this.spawned = false;
+        Engine engine = Engine.getInstance();
+        unsubscribeSystems(engine);
+        ComponentIndex index = engine.getComponentIndex();
+        for (int i = 0, length = indexSlots.length; i < length; i++) {
+            index.remove(i, this);
+        }
+        getWorldTransform().get(matrixBuffer);
+        points.transform(matrixBuffer, worldPoints);
+        for (int i = 0, size = points.size(); i < size; i++) {
+            points.getRenderable(i).despawn(
+                world, new Vector(worldPoints.getX(i), worldPoints.getY(i), worldPoints.getZ(i)));
+        }
+        for (int i = 0; i < childCount; i++) {
+            children[i].despawn();
+        }
         
-        triggerEvent(SystemTrigger.DESPAWN_EVENT);
+        triggerEvent(DESPAWN_EVENT);
+        if (parent == null) {
+            template.recycle(this);
+        }
     }
     
     /**
@@ -448,6 +900,57 @@ public final class Object3D implements EcsEntity {
         respawn(1);
     }
     
+    /**
+     * @return true if this object is spawned, false otherwise
+     */
+    @Kapi
+    public boolean isSpawned() {
+        return spawned;
+    }
+    
+    int getRenderInterval() {
+        return renderInterval;
+    }
+    
+    long getSpawnTick() {
+        return spawnTick;
+    }
+    
+    void setSpawnTick(long spawnTick) {
+        this.spawnTick = spawnTick;
+    }
+    
+    boolean isDeferred() {
+        return deferredTick != -1;
+    }
+    
+    /**
+     * @return the engine tick this object was first deferred at, -1 if it's not deferred
+     */
+    long getDeferredTick() {
+        return deferredTick;
+    }
+    
+    void setDeferredTick(long deferredTick) {
+        this.deferredTick = deferredTick;
+    }
+    
+    double getRenderPriority() {
+        return renderPriority;
+    }
+    
+    void setRenderPriority(double renderPriority) {
+        this.renderPriority = renderPriority;
+    }
+    
+    boolean isRegistered() {
+        return registered;
+    }
+    
+    void setRegistered(boolean registered) {
+        this.registered = registered;
+    }
+    
     /**
      * Gets the visibility of this object<br>
      * Note: this doesn't check if the object is actually visible,
@@ -488,22 +991,80 @@ public final class Object3D implements EcsEntity {
         return visibility == Visibility.VISIBLE;
     }
     
-    private void invalidateCachedWorldTransform() {
-        cachedWorldTransform = null;
-        // Invalidate children cached world transform
-        getChildren().forEach(entry -> entry.getValue().invalidateCachedWorldTransform());
+    /**
+     * Sets a component on this object
+     *
+     * @param key   The key of the component
+     * @param value The value of the component
+     * @param <T>   The type of the component
+     */
+    @Kapi
+    @Override
+    public <T> void set(ComponentKey<T> key, @Nullable T value) {
+        components.set(key, value);
+        if (spawned) Engine.getInstance().getComponentIndex().add(key.getIndex(), this);
     }
     
     /**
-     * Sets a component on this object
+     * Gets a component from this object<br>
+     * <br>
+     * Note: to determine if a returned null value is because the component
+     * doesn't exist or because the component is null, use {@link #has(ComponentKey)}
+     *
+     * @param key The key of the component
+     * @param <T> The type of the component
+     * @return The value of the component or null if the component doesn't exist
+     */
+    @Kapi
+    @Override
+    public <T> @Nullable T get(ComponentKey<T> key) {
+        return components.get(key);
+    }
+    
+    /**
+     * Checks if this object has a component with the given key
+     *
+     * @param key The key of the component
+     * @return true if this object has the component, false otherwise
+     */
+    @Kapi
+    @Override
+    public boolean has(ComponentKey<?> key) {
+        return components.has(key);
+    }
+    
+    /**
+     * Removes a component from this object
+     *
+     * @param key The key of the component
+     */
+    @Kapi
+    @Override
+    public void remove(ComponentKey<?> key) {
+        components.remove(key);
+        Engine.getInstance().getComponentIndex().remove(key.getIndex(), this);
+    }
+    
+    /**
+     * Sets a component on this object<br>
+     * <br>
+     * Note: if the component has a typed {@link ComponentKey},
+     * the value is converted to its type, see {@link ComponentKey#of(String, Class, java.util.function.Function)}
      *
      * @param key   The name of the component
      * @param value The value of the component
+     * @throws IllegalArgumentException If the value can't be converted to the type of the component
      */
     @Kapi
     @Override
     public void set(String key, @Nullable Object value) {
-        components.put(key, value);
+        setAdapted(ComponentKey.named(key), value);
+    }
+    
+    // Package-private
+    <T> void setAdapted(ComponentKey<T> key, @Nullable Object value) {
+        components.setAdapted(key, value);
+        if (spawned) Engine.getInstance().getComponentIndex().add(key.getIndex(), this);
     }
     
     /**
@@ -518,7 +1079,7 @@ public final class Object3D implements EcsEntity {
     @Kapi
     @Override
     public @Nullable Object get(String key) {
-        return components.getOrDefault(key, null);
+        return components.get(key);
     }
     
     /**
@@ -530,7 +1091,7 @@ public final class Object3D implements EcsEntity {
     @Kapi
     @Override
     public boolean has(String key) {
-        return components.containsKey(key);
+        return components.has(key);
     }
     
     /**
@@ -541,7 +1102,34 @@ public final class Object3D implements EcsEntity {
     @Kapi
     @Override
     public void remove(String key) {
-        components.remove(key);
+        ComponentKey<?> componentKey = ComponentKey.find(key);
+        if (componentKey != null) remove(componentKey);
+    }
+    
+    /**
+     * @return the position of this object in the members of the component, or -1 if it's not a member
+     */
+    int getIndexSlot(int component) {
+        return component < indexSlots.length ? indexSlots[component] : -1;
+    }
+    
+    void setIndexSlot(int component, int slot) {
+        if (component >= indexSlots.length) {
+            int oldLength = indexSlots.length;
+            indexSlots = Arrays.copyOf(indexSlots, Math.max(component + 1, oldLength * 2));
+            Arrays.fill(indexSlots, oldLength, indexSlots.length, -1);
+        }
+        indexSlots[component] = slot;
+    }
+    
+    // Package-private
+    int getCollisionSlot() {
+        return collisionSlot;
+    }
+    
+    // Package-private
+    void setCollisionSlot(int slot) {
+        this.collisionSlot = slot;
     }
     
     /**
@@ -560,7 +1148,7 @@ public final class Object3D implements EcsEntity {
         SystemTrigger trigger, Consumer<Object3D> system
     ) {
         if (trigger.isEvent()) {
-            events.computeIfAbsent(trigger.getEvent(), k -> new ArrayList<>()).add(system);
+            events.add(trigger.getEventId(), system);
         } else {
             tasks.add(Pair.of(trigger, system));
         }
@@ -576,9 +1164,25 @@ public final class Object3D implements EcsEntity {
     @Kapi
     @Override
     public void triggerEvent(String event) {
-        List<Consumer<Object3D>> listeners = events.getOrDefault(event, null);
-        if (listeners == null) return;
-        listeners.forEach(listener -> listener.accept(this));
+        int eventId = SystemTrigger.findEventId(event);
+        // No system ever listened for it, so there is nothing to call
+        if (eventId == -1) return;
+        triggerEvent(eventId);
+    }
+    
+    /**
+     * Triggers an event on this object<br>
+     * This will call all systems that are listening for this event<br>
+     * <br>
+     * Faster than {@link #triggerEvent(String)}, the listeners are found by indexing an array
+     *
+     * @param eventId The id of the event to trigger, see {@link SystemTrigger#eventId(String)}
+     */
+    @Kapi
+    public void triggerEvent(int eventId) {
+        for (Consumer<Object3D> listener : events.get(eventId)) {
+            listener.accept(this);
+        }
     }
     
     /**
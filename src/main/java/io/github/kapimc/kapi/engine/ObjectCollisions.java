@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.engine.ecs.Component;
+import io.github.kapimc.kapi.engine.ecs.ComponentKey;
+import org.bukkit.util.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The collisions between all spawned objects that have a {@value Component#COLLISION_SHAPE},
+ * found with a {@link SweepAndPrune} broadphase at most once per engine tick,
+ * on the first query of the tick.
+ */
+final class ObjectCollisions {
+    
+    private static final ComponentKey<?> COLLISION_SHAPE = ComponentKey.named(Component.COLLISION_SHAPE);
+    
+    private final SweepAndPrune broadphase;
+    private Object3D[] objects;
+    private int size;
+    private long tick;
+    private int[] pairs;
+    private int pairCount;
+    // The collisions of object i are contacts[contactStarts[i]] until contacts[contactStarts[i + 1]]
+    private int[] contactStarts;
+    private int[] contacts;
+    
+    ObjectCollisions() {
+        this.broadphase = new SweepAndPrune();
+        this.objects = new Object3D[16];
+        this.tick = -1;
+        this.pairs = new int[32];
+        this.contactStarts = new int[17];
+        this.contacts = new int[32];
+    }
+    
+    /**
+     * @param object the object to get the collisions of
+     * @param tick   the current engine tick, collisions are recalculated if they weren't this tick
+     * @return a new list of the objects that the object collides with
+     */
+    List<Object3D> getCollisions(Object3D object, ComponentIndex index, long tick) {
+        if (this.tick != tick) {
+            this.tick = tick;
+            update(index);
+        }
+        int slot = object.getCollisionSlot();
+        if (slot == -1 || slot >= size || objects[slot] != object) return new ArrayList<>();
+        
+        int start = contactStarts[slot];
+        int end = contactStarts[slot + 1];
+        List<Object3D> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(objects[contacts[i]]);
+        }
+        return result;
+    }
+    
+    /**
+     * Forgets the objects of this tick, so despawned objects aren't kept in memory.
+     */
+    void release() {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        tick = -1;
+    }
+    
+    private void update(ComponentIndex index) {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        broadphase.clear();
+        
+        int component = COLLISION_SHAPE.getIndex();
+        for (int i = 0, members = index.size(component); i < members; i++) {
+            Object3D object = index.get(component, i);
+            BoundingBox box = object.getCollisionBox();
+            if (box == null) continue;
+            if (size == objects.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+            }
+            object.setCollisionSlot(size);
+            objects[size++] = object;
+            broadphase.add(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ());
+        }
+        
+        pairCount = 0;
+        broadphase.findPairs(this::addPair);
+        
+        // Group the pairs by object, so each query is a single range
+        if (contactStarts.length < size + 1) {
+            contactStarts = new int[size + 1];
+        }
+        Arrays.fill(contactStarts, 0, size + 1, 0);
+        int pairValues = pairCount * 2;
+        for (int i = 0; i < pairValues; i++) {
+            contactStarts[pairs[i] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            contactStarts[i + 1] += contactStarts[i];
+        }
+        if (contacts.length < pairValues) {
+            contacts = new int[pairValues];
+        }
+        int[] next = Arrays.copyOf(contactStarts, size);
+        for (int i = 0; i < pairValues; i += 2) {
+            contacts[next[pairs[i]]++] = pairs[i + 1];
+            contacts[next[pairs[i + 1]]++] = pairs[i];
+        }
+    }
+    
+    private void addPair(int first, int second) {
+        // Objects in different worlds may have overlapping coordinates
+        if (objects[first].getWorld() != objects[second].getWorld()) return;
+        if (pairCount * 2 == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[pairCount * 2] = first;
+        pairs[pairCount * 2 + 1] = second;
+        pairCount++;
+    }
+}
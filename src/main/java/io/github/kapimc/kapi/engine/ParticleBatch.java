@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.data.ParticleData;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Collects particles emitted during an engine tick and sends them all at the end of it.<br>
+ * <br>
+ * Particles are grouped by world and by {@link ParticleData},
+ * points that use the same particle data share a single emission.
+ * Instead of every particle looking up the players of its world,
+ * each player in range is sent the whole group in one pass.<br>
+ * <br>
+ * Note: forced particles are still spawned through {@link World},
+ * as players can't be sent forced particles directly
+ */
+@Kapi
+public final class ParticleBatch {
+    
+    // Players only receive particles within this distance
+    private static final double RANGE_SQUARED = 32 * 32;
+    
+    private final IdentityHashMap<World,IdentityHashMap<ParticleData,Emission>> emissionsByWorld;
+    private final List<Emission> emissions;
+    private long emitted;
+    
+    ParticleBatch() {
+        this.emissionsByWorld = new IdentityHashMap<>();
+        this.emissions = new ArrayList<>();
+    }
+    
+    /**
+     * Emits a particle, it will be sent to players at the end of the current engine tick.<br>
+     * <br>
+     * Note: the particle data is grouped by identity and read when the batch is sent,
+     * modifying it in the same tick affects all of its particles
+     *
+     * @param world    the world to spawn the particle in
+     * @param particle the particle to spawn
+     * @param x        the x coordinate
+     * @param y        the y coordinate
+     * @param z        the z coordinate
+     */
+    @Kapi
+    public void add(World world, ParticleData particle, double x, double y, double z) {
+        IdentityHashMap<ParticleData,Emission> worldEmissions = emissionsByWorld.get(world);
+        if (worldEmissions == null) {
+            worldEmissions = new IdentityHashMap<>();
+            emissionsByWorld.put(world, worldEmissions);
+        }
+        Emission emission = worldEmissions.get(particle);
+        if (emission == null) {
+            emission = new Emission(world, particle);
+            worldEmissions.put(particle, emission);
+            emissions.add(emission);
+        }
+        emission.points.add(x, y, z);
+    }
+    
+    /**
+     * @return the number of particles that were sent in the last engine tick
+     */
+    @Kapi
+    public long getEmittedCount() {
+        return emitted;
+    }
+    
+    /**
+     * Sends all particles emitted since the last flush to the players in range.
+     *
+     * @param viewers the players to send the particles to
+     */
+    void flush(ViewerSnapshot viewers) {
+        emitted = 0;
+        for (int e = 0; e < emissions.size(); e++) {
+            Emission emission = emissions.get(e);
+            PointBuffer points = emission.points;
+            if (points.size() == 0) continue;
+            emitted += points.size();
+            
+            ParticleData data = emission.data;
+            if (data.isForce()) {
+                for (int i = 0, size = points.size(); i < size; i++) {
+                    emission.world.spawnParticle(
+                        data.getParticle(), points.getX(i), points.getY(i), points.getZ(i),
+                        data.getCount(), data.getSpreadX(), data.getSpreadY(), data.getSpreadZ(),
+                        data.getExtra(), data.getData(), true
+                    );
+                }
+                continue;
+            }
+            
+            for (int v = 0, viewerCount = viewers.size(); v < viewerCount; v++) {
+                if (viewers.getWorld(v) != emission.world) continue;
+                Player player = viewers.getPlayer(v);
+                double playerX = viewers.getX(v);
+                double playerY = viewers.getY(v);
+                double playerZ = viewers.getZ(v);
+                for (int i = 0, size = points.size(); i < size; i++) {
+                    double dx = points.getX(i) - playerX;
+                    double dy = points.getY(i) - playerY;
+                    double dz = points.getZ(i) - playerZ;
+                    if (dx * dx + dy * dy + dz * dz > RANGE_SQUARED) continue;
+                    player.spawnParticle(
+                        data.getParticle(), points.getX(i), points.getY(i), points.getZ(i),
+                        data.getCount(), data.getSpreadX(), data.getSpreadY(), data.getSpreadZ(),
+                        data.getExtra(), data.getData()
+                    );
+                }
+            }
+        }
+        
+        // Emissions are reused every tick, unless nothing was emitted with them,
+        // so particle data that is no longer used isn't kept forever
+        int kept = 0;
+        for (int e = 0; e < emissions.size(); e++) {
+            Emission emission = emissions.get(e);
+            if (emission.points.size() == 0) {
+                IdentityHashMap<ParticleData,Emission> worldEmissions = emissionsByWorld.get(emission.world);
+                worldEmissions.remove(emission.data);
+                if (worldEmissions.isEmpty()) emissionsByWorld.remove(emission.world);
+                continue;
+            }
+            emission.points.clear();
+            emissions.set(kept++, emission);
+        }
+        emissions.subList(kept, emissions.size()).clear();
+    }
+    
+    private static final class Emission {
+        private final World world;
+        private final ParticleData data;
+        private final PointBuffer points;
+        
+        private Emission(World world, ParticleData data) {
+            this.world = world;
+            this.data = data;
+            this.points = new PointBuffer(16);
+        }
+    }
+}
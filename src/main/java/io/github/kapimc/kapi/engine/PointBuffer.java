@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of XYZ coordinates stored in a single primitive array.<br>
+ * Used as reusable scratch space when rendering, so transforming points doesn't allocate.
+ */
+final class PointBuffer {
+    private double[] coordinates;
+    private int size;
+    
+    PointBuffer() {
+        this(16);
+    }
+    
+    PointBuffer(int capacity) {
+        this.coordinates = new double[capacity * 3];
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+    
+    void ensureCapacity(int points) {
+        if (coordinates.length < points * 3) {
+            coordinates = Arrays.copyOf(coordinates, Math.max(points, size * 2) * 3);
+        }
+    }
+    
+    void add(double x, double y, double z) {
+        ensureCapacity(size + 1);
+        int i = size * 3;
+        coordinates[i] = x;
+        coordinates[i + 1] = y;
+        coordinates[i + 2] = z;
+        size++;
+    }
+    
+    double getX(int index) {
+        return coordinates[index * 3];
+    }
+    
+    double getY(int index) {
+        return coordinates[index * 3 + 1];
+    }
+    
+    double getZ(int index) {
+        return coordinates[index * 3 + 2];
+    }
+    
+    /**
+     * Transforms all points in this buffer as positions and writes them into the destination.<br>
+     * The destination is resized to match this buffer, it may be this buffer itself.
+     *
+     * @param matrix      a 4x4 matrix in column-major order, as written by {@code Matrix4fc#get(float[])}
+     * @param destination the buffer to write the transformed points into
+     */
+    void transform(float[] matrix, PointBuffer destination) {
+        transform(matrix, coordinates, size, destination);
+    }
+    
+    /**
+     * Transforms points stored as XYZ triplets as positions and writes them into the destination.<br>
+     * The destination is resized to the given amount of points.
+     *
+     * @param matrix      a 4x4 matrix in column-major order, as written by {@code Matrix4fc#get(float[])}
+     * @param source      the coordinates to transform
+     * @param size        the amount of points in the source
+     * @param destination the buffer to write the transformed points into
+     */
+    static void transform(float[] matrix, double[] source, int size, PointBuffer destination) {
+        destination.ensureCapacity(size);
+        double[] src = source;
+        double[] dst = destination.coordinates;
+        for (int i = 0, end = size * 3; i < end; i += 3) {
+            double x = src[i];
+            double y = src[i + 1];
+            double z = src[i + 2];
+            dst[i] = matrix[0] * x + matrix[4] * y + matrix[8] * z + matrix[12];
+            dst[i + 1] = matrix[1] * x + matrix[5] * y + matrix[9] * z + matrix[13];
+            dst[i + 2] = matrix[2] * x + matrix[6] * y + matrix[10] * z + matrix[14];
+        }
+        destination.size = size;
+    }
+}
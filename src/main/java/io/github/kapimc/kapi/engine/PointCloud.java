@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.engine.renderable.Renderable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A packed collection of points.<br>
+ * <br>
+ * Instead of storing a {@link Point} object per point,
+ * the coordinates of all points are stored in a single array,
+ * and each point stores an index into a palette of renderables.<br>
+ * Renderables that are {@link Renderable#isShareable() shareable} appear in the palette once,
+ * no matter how many points use them.<br>
+ * <br>
+ * Instances of a {@link Template3D} share the template's coordinates,
+ * which are only copied once either the template or the instance modifies them.
+ */
+@Kapi
+public final class PointCloud {
+    private double[] coordinates;
+    private int[] renderableIndices;
+    private Renderable[] palette;
+    private int size;
+    private int paletteSize;
+    private int modificationCount;
+    private boolean shared;
+    private boolean boundsDirty;
+    private double boundsX;
+    private double boundsY;
+    private double boundsZ;
+    private double boundsRadius;
+    
+    /**
+     * Creates an empty point cloud.
+     */
+    @Kapi
+    public PointCloud() {
+        this.coordinates = new double[0];
+        this.renderableIndices = new int[0];
+        this.palette = new Renderable[0];
+        this.boundsDirty = true;
+    }
+    
+    /**
+     * Creates a point cloud with the given points.<br>
+     * The renderables are used as is, they are not cloned.
+     *
+     * @param points the points to add
+     */
+    @Kapi
+    public PointCloud(List<Point> points) {
+        this();
+        ensureCapacity(points.size());
+        for (Point point : points) {
+            add(point);
+        }
+    }
+    
+    private PointCloud(
+        double[] coordinates, int[] renderableIndices, Renderable[] palette, int size, int paletteSize
+    ) {
+        this.coordinates = coordinates;
+        this.renderableIndices = renderableIndices;
+        this.palette = palette;
+        this.size = size;
+        this.paletteSize = paletteSize;
+        this.shared = true;
+        this.boundsDirty = true;
+    }
+    
+    /**
+     * @return the number of points
+     */
+    @Kapi
+    public int size() {
+        return size;
+    }
+    
+    @Kapi
+    public double getX(int index) {
+        checkIndex(index);
+        return coordinates[index * 3];
+    }
+    
+    @Kapi
+    public double getY(int index) {
+        checkIndex(index);
+        return coordinates[index * 3 + 1];
+    }
+    
+    @Kapi
+    public double getZ(int index) {
+        checkIndex(index);
+        return coordinates[index * 3 + 2];
+    }
+    
+    /**
+     * Sets the coordinates of a point.
+     *
+     * @param index the index of the point
+     * @param x     the new x coordinate
+     * @param y     the new y coordinate
+     * @param z     the new z coordinate
+     */
+    @Kapi
+    public void set(int index, double x, double y, double z) {
+        checkIndex(index);
+        copyIfShared();
+        modificationCount++;
+        int i = index * 3;
+        coordinates[i] = x;
+        coordinates[i + 1] = y;
+        coordinates[i + 2] = z;
+        boundsDirty = true;
+    }
+    
+    /**
+     * Gets the renderable of a point.<br>
+     * <br>
+     * Note: shareable renderables may be used by other points and other instances,
+     * to change a single point, use {@link #setRenderable(int, Renderable)} instead of modifying it
+     *
+     * @param index the index of the point
+     * @return the renderable of the point
+     */
+    @Kapi
+    public Renderable getRenderable(int index) {
+        checkIndex(index);
+        return palette[renderableIndices[index]];
+    }
+    
+    /**
+     * Sets the renderable of a point.
+     *
+     * @param index      the index of the point
+     * @param renderable the new renderable
+     */
+    @Kapi
+    public void setRenderable(int index, Renderable renderable) {
+        checkIndex(index);
+        copyIfShared();
+        modificationCount++;
+        int current = renderableIndices[index];
+        if (!palette[current].isShareable()) {
+            // Not shared with any other point, so it can be replaced in place
+            palette[current] = renderable;
+        } else {
+            renderableIndices[index] = indexOf(renderable);
+        }
+    }
+    
+    /**
+     * Gets a point.
+     *
+     * @param index the index of the point
+     * @return a new point with the coordinates and renderable of the point at the index,
+     *     modifying it won't affect this point cloud
+     */
+    @Kapi
+    public Point getPoint(int index) {
+        return new Point(getX(index), getY(index), getZ(index), getRenderable(index));
+    }
+    
+    /**
+     * @return a stream of new points, see {@link #getPoint(int)}
+     */
+    @Kapi
+    public Stream<Point> stream() {
+        return IntStream.range(0, size).mapToObj(this::getPoint);
+    }
+    
+    /**
+     * Adds a point.
+     *
+     * @param x          the x coordinate
+     * @param y          the y coordinate
+     * @param z          the z coordinate
+     * @param renderable the renderable of the point
+     */
+    @Kapi
+    public void add(double x, double y, double z, Renderable renderable) {
+        copyIfShared();
+        modificationCount++;
+        ensureCapacity(size + 1);
+        int i = size * 3;
+        coordinates[i] = x;
+        coordinates[i + 1] = y;
+        coordinates[i + 2] = z;
+        renderableIndices[size] = indexOf(renderable);
+        size++;
+        boundsDirty = true;
+    }
+    
+    /**
+     * Adds a point.
+     *
+     * @param point the point to add, its renderable is used as is
+     */
+    @Kapi
+    public void add(Point point) {
+        add(point.getX(), point.getY(), point.getZ(), point.getRenderable());
+    }
+    
+    /**
+     * Removes all points that the predicate returns true for.<br>
+     * Note: a new point is created for every point tested
+     *
+     * @param predicate the predicate
+     */
+    @Kapi
+    public void removeIf(Predicate<Point> predicate) {
+        copyIfShared();
+        modificationCount++;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(getPoint(i))) continue;
+            System.arraycopy(coordinates, i * 3, coordinates, kept * 3, 3);
+            renderableIndices[kept] = renderableIndices[i];
+            kept++;
+        }
+        size = kept;
+        boundsDirty = true;
+    }
+    
+    /**
+     * Makes sure the point cloud can hold the given amount of points without resizing.
+     *
+     * @param points the amount of points
+     */
+    @Kapi
+    public void ensureCapacity(int points) {
+        if (renderableIndices.length >= points) return;
+        int capacity = Math.max(points, renderableIndices.length * 2);
+        coordinates = Arrays.copyOf(coordinates, capacity * 3);
+        renderableIndices = Arrays.copyOf(renderableIndices, capacity);
+    }
+    
+    /**
+     * Creates a point cloud for a new instance.<br>
+     * The coordinates are shared until either cloud modifies them,
+     * renderables that aren't shareable are cloned.
+     *
+     * @return a new point cloud with the same points
+     */
+    PointCloud instantiate() {
+        Renderable[] instancePalette = new Renderable[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            Renderable renderable = palette[i];
+            instancePalette[i] = renderable.isShareable() ? renderable : renderable.clone();
+        }
+        this.shared = true;
+        return new PointCloud(coordinates, renderableIndices, instancePalette, size, paletteSize);
+    }
+    
+    /**
+     * @return the number of times the points were modified, used to detect modifications in place
+     */
+    int getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * @return true if the coordinates are still shared with the cloud this was instantiated from
+     *     (or that was instantiated from this), false once either modified them
+     */
+    boolean isShared() {
+        return shared;
+    }
+    
+    /**
+     * Transforms all points as positions and writes them into the destination.
+     *
+     * @param matrix      a 4x4 matrix in column-major order, as written by {@code Matrix4fc#get(float[])}
+     * @param destination the buffer to write the transformed points into
+     */
+    void transform(float[] matrix, PointBuffer destination) {
+        PointBuffer.transform(matrix, coordinates, size, destination);
+    }
+    
+    /**
+     * @return the x coordinate of the center of a sphere containing all points
+     */
+    double getBoundsX() {
+        updateBounds();
+        return boundsX;
+    }
+    
+    /**
+     * @return the y coordinate of the center of a sphere containing all points
+     */
+    double getBoundsY() {
+        updateBounds();
+        return boundsY;
+    }
+    
+    /**
+     * @return the z coordinate of the center of a sphere containing all points
+     */
+    double getBoundsZ() {
+        updateBounds();
+        return boundsZ;
+    }
+    
+    /**
+     * @return the radius of a sphere containing all points
+     */
+    double getBoundsRadius() {
+        updateBounds();
+        return boundsRadius;
+    }
+    
+    /**
+     * Note: not cached, renderables are mutable and may change their render distance at any time
+     *
+     * @return the largest render distance of any renderable, see {@link Renderable#getRenderDistance()}
+     */
+    double getRenderDistance() {
+        double distance = 0;
+        for (int i = 0; i < paletteSize; i++) {
+            distance = Math.max(distance, palette[i].getRenderDistance());
+        }
+        return distance;
+    }
+    
+    private void updateBounds() {
+        if (!boundsDirty) return;
+        boundsDirty = false;
+        if (size == 0) {
+            boundsX = boundsY = boundsZ = boundsRadius = 0;
+            return;
+        }
+        
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0, length = size * 3; i < length; i += 3) {
+            minX = Math.min(minX, coordinates[i]);
+            minY = Math.min(minY, coordinates[i + 1]);
+            minZ = Math.min(minZ, coordinates[i + 2]);
+            maxX = Math.max(maxX, coordinates[i]);
+            maxY = Math.max(maxY, coordinates[i + 1]);
+            maxZ = Math.max(maxZ, coordinates[i + 2]);
+        }
+        boundsX = (minX + maxX) / 2;
+        boundsY = (minY + maxY) / 2;
+        boundsZ = (minZ + maxZ) / 2;
+        
+        double radiusSquared = 0;
+        for (int i = 0, length = size * 3; i < length; i += 3) {
+            double dx = coordinates[i] - boundsX;
+            double dy = coordinates[i + 1] - boundsY;
+            double dz = coordinates[i + 2] - boundsZ;
+            radiusSquared = Math.max(radiusSquared, dx * dx + dy * dy + dz * dz);
+        }
+        boundsRadius = Math.sqrt(radiusSquared);
+    }
+    
+    private int indexOf(Renderable renderable) {
+        // Renderables with per point state, like a spawned entity, can't be shared between points
+        if (renderable.isShareable()) {
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == renderable) return i;
+            }
+        }
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, Math.max(4, paletteSize * 2));
+        }
+        palette[paletteSize] = renderable;
+        return paletteSize++;
+    }
+    
+    private void copyIfShared() {
+        if (!shared) return;
+        coordinates = coordinates.clone();
+        renderableIndices = renderableIndices.clone();
+        shared = false;
+    }
+    
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
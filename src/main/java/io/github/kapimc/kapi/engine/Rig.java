@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.engine.renderable.BlockDisplayRender;
+import io.github.kapimc.kapi.engine.renderable.ItemDisplayRender;
+import org.joml.Matrix4fc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A skeleton of bones that poses the display points of a {@link Template3D}, see {@link Template3D#setRig(Rig)}.<br>
+ * <br>
+ * Bones are stored in flat arrays, and a bone can only be added after its parent,
+ * so the whole skeleton is evaluated in a single loop over the bones, without walking the hierarchy,
+ * see {@link RigPose}.<br>
+ * <br>
+ * Display points ({@link BlockDisplayRender} and {@link ItemDisplayRender}) are bound to a bone,
+ * and follow it through their transformation, the entity itself never moves relative to the object.
+ * The transformation of the display in the template is its bind pose.
+ */
+@Kapi
+public final class Rig {
+    
+    private static final int STRIDE = MatrixPalette.STRIDE;
+    
+    private final HashMap<String,Integer> bonesByName;
+    private String[] names;
+    private int[] parents;
+    private float[] bindTransforms;
+    private float[] bindWorldTransforms;
+    private float[] inverseBindTransforms;
+    private int boneCount;
+    private int[] partPoints;
+    private int[] partBones;
+    private int partCount;
+    private int version;
+    
+    /**
+     * Creates a rig without bones.
+     */
+    @Kapi
+    public Rig() {
+        this.bonesByName = new HashMap<>();
+        this.names = new String[8];
+        this.parents = new int[8];
+        this.bindTransforms = new float[8 * STRIDE];
+        this.bindWorldTransforms = new float[8 * STRIDE];
+        this.inverseBindTransforms = new float[8 * STRIDE];
+        this.partPoints = new int[8];
+        this.partBones = new int[8];
+    }
+    
+    /**
+     * Adds a root bone.
+     *
+     * @param name      the unique name of the bone
+     * @param transform the bind pose of the bone, relative to the object, must be affine and invertible
+     * @return the index of the bone
+     * @throws IllegalArgumentException if the name is already used or the transform is not invertible
+     */
+    @Kapi
+    public int addBone(String name, Matrix4fc transform) {
+        return addBone(name, -1, transform);
+    }
+    
+    /**
+     * Adds a bone.
+     *
+     * @param name      the unique name of the bone
+     * @param parent    the name of the parent bone
+     * @param transform the bind pose of the bone, relative to its parent, must be affine and invertible
+     * @return the index of the bone
+     * @throws IllegalArgumentException if the name is already used, the parent doesn't exist
+     *                                  or the transform is not invertible
+     */
+    @Kapi
+    public int addBone(String name, String parent, Matrix4fc transform) {
+        return addBone(name, requireBone(parent), transform);
+    }
+    
+    private int addBone(String name, int parent, Matrix4fc transform) {
+        if (bonesByName.containsKey(name)) {
+            throw new IllegalArgumentException("A bone named " + name + " already exists");
+        }
+        if (boneCount == names.length) {
+            int capacity = boneCount * 2;
+            names = Arrays.copyOf(names, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            bindTransforms = Arrays.copyOf(bindTransforms, capacity * STRIDE);
+            bindWorldTransforms = Arrays.copyOf(bindWorldTransforms, capacity * STRIDE);
+            inverseBindTransforms = Arrays.copyOf(inverseBindTransforms, capacity * STRIDE);
+        }
+        int bone = boneCount;
+        int offset = bone * STRIDE;
+        transform.get(bindTransforms, offset);
+        
+        if (parent < 0) {
+            System.arraycopy(bindTransforms, offset, bindWorldTransforms, offset, STRIDE);
+        } else {
+            MatrixPalette.mulAffine(
+                bindWorldTransforms, parent * STRIDE, bindTransforms, offset, bindWorldTransforms, offset);
+        }
+        // Undoes the bind pose relative to the object when skinning
+        MatrixPalette.invertAffine(bindWorldTransforms, offset, inverseBindTransforms, offset);
+        
+        names[bone] = name;
+        parents[bone] = parent;
+        bonesByName.put(name, bone);
+        boneCount++;
+        version++;
+        return bone;
+    }
+    
+    /**
+     * @param name the name of the bone
+     * @return the index of the bone, -1 if there is no bone with that name
+     */
+    @Kapi
+    public int getBoneIndex(String name) {
+        Integer bone = bonesByName.get(name);
+        return bone == null ? -1 : bone;
+    }
+    
+    /**
+     * @param bone the index of the bone
+     * @return the name of the bone
+     * @throws IndexOutOfBoundsException if there is no bone at the index
+     */
+    @Kapi
+    public String getBoneName(int bone) {
+        checkBone(bone);
+        return names[bone];
+    }
+    
+    /**
+     * @return the number of bones
+     */
+    @Kapi
+    public int getBoneCount() {
+        return boneCount;
+    }
+    
+    /**
+     * Binds a point of the template to a bone, so it follows the bone when posed.<br>
+     * Note: the point must be a {@link BlockDisplayRender} or {@link ItemDisplayRender},
+     * this is checked when an instance is created
+     *
+     * @param point the index of the point in the template, see {@link Template3D#getPointCloud()}
+     * @param bone  the name of the bone
+     * @throws IllegalArgumentException if the point is negative or the bone doesn't exist
+     */
+    @Kapi
+    public void bindPoint(int point, String bone) {
+        if (point < 0) {
+            throw new IllegalArgumentException("Point index cannot be negative");
+        }
+        int boneIndex = requireBone(bone);
+        if (partCount == partPoints.length) {
+            partPoints = Arrays.copyOf(partPoints, partCount * 2);
+            partBones = Arrays.copyOf(partBones, partCount * 2);
+        }
+        partPoints[partCount] = point;
+        partBones[partCount] = boneIndex;
+        partCount++;
+        version++;
+    }
+    
+    /**
+     * @return the number of points bound to bones
+     */
+    @Kapi
+    public int getBoundPointCount() {
+        return partCount;
+    }
+    
+    // Package-private
+    int[] getParents() {
+        return parents;
+    }
+    
+    // Package-private
+    float[] getBindTransforms() {
+        return bindTransforms;
+    }
+    
+    // Package-private
+    float[] getInverseBindTransforms() {
+        return inverseBindTransforms;
+    }
+    
+    // Package-private
+    int getPartPoint(int part) {
+        return partPoints[part];
+    }
+    
+    // Package-private
+    int getPartBone(int part) {
+        return partBones[part];
+    }
+    
+    /**
+     * @return a number that changes every time a bone or binding is added
+     */
+    // Package-private
+    int getVersion() {
+        return version;
+    }
+    
+    private int requireBone(String name) {
+        int bone = getBoneIndex(name);
+        if (bone == -1) {
+            throw new IllegalArgumentException("There is no bone named " + name);
+        }
+        return bone;
+    }
+    
+    private void checkBone(int bone) {
+        if (bone < 0 || bone >= boneCount) {
+            throw new IndexOutOfBoundsException("Bone " + bone + " out of bounds for " + boneCount + " bones");
+        }
+    }
+}
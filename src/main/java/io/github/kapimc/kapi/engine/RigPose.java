@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.data.DisplayData;
+import io.github.kapimc.kapi.engine.renderable.BlockDisplayRender;
+import io.github.kapimc.kapi.engine.renderable.ItemDisplayRender;
+import io.github.kapimc.kapi.engine.renderable.Renderable;
+import org.bukkit.util.Transformation;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * The pose of the {@link Rig} of an {@link Object3D}, see {@link Object3D#getRigPose()}.<br>
+ * <br>
+ * Setting a bone's transform only stores it, the whole skeleton is evaluated
+ * the next time the object is rendered, in a single loop over the bones into a matrix palette.
+ * The bound displays are then updated through their transformation,
+ * and only the displays whose transformation changed are sent to players.<br>
+ * <br>
+ * Note: only the points of the object are posed, not the points of its levels of detail<br>
+ * Note: a parent bone with a non-uniform scale and a rotated child bone results in a skewed matrix,
+ * which a display transformation can't represent, the skew is dropped
+ */
+@Kapi
+public final class RigPose {
+    
+    private static final int STRIDE = MatrixPalette.STRIDE;
+    
+    private final Rig rig;
+    private final PointCloud bindPoints;
+    private int version;
+    private int boneCount;
+    private float[] locals;
+    private float[] worlds;
+    private float[] palette;
+    private int partCount;
+    private float[] partBinds;
+    private float[] partTransforms;
+    private final float[] skin;
+    private final float[] transform;
+    private final float[] sampledTranslation;
+    private final float[] sampledRotation;
+    private final float[] sampledScale;
+    private final Matrix4f matrix;
+    private boolean dirty;
+    
+    /**
+     * @param rig        the rig to pose
+     * @param bindPoints the points of the template, their display transformations are the bind pose
+     * @throws IllegalArgumentException if a bound point is not a block or item display
+     */
+    // Package-private
+    RigPose(Rig rig, PointCloud bindPoints) {
+        this.rig = rig;
+        this.bindPoints = bindPoints;
+        this.version = -1;
+        this.skin = new float[STRIDE];
+        this.transform = new float[STRIDE];
+        this.sampledTranslation = new float[3];
+        this.sampledRotation = new float[4];
+        this.sampledScale = new float[3];
+        this.matrix = new Matrix4f();
+        synchronizeWithRig();
+    }
+    
+    @Kapi
+    public Rig getRig() {
+        return rig;
+    }
+    
+    /**
+     * Sets the transform of a bone relative to its parent, replacing its bind pose.
+     *
+     * @param bone      the index of the bone, see {@link Rig#getBoneIndex(String)}
+     * @param transform the transform, must be affine
+     * @throws IndexOutOfBoundsException if there is no bone at the index
+     */
+    @Kapi
+    public void setBoneTransform(int bone, Matrix4fc transform) {
+        checkBone(bone);
+        transform.get(locals, bone * STRIDE);
+        dirty = true;
+    }
+    
+    /**
+     * Sets the transform of a bone relative to its parent, replacing its bind pose.
+     *
+     * @param bone      the name of the bone
+     * @param transform the transform, must be affine
+     * @throws IllegalArgumentException if there is no bone with the name
+     */
+    @Kapi
+    public void setBoneTransform(String bone, Matrix4fc transform) {
+        int index = rig.getBoneIndex(bone);
+        if (index == -1) {
+            throw new IllegalArgumentException("There is no bone named " + bone);
+        }
+        setBoneTransform(index, transform);
+    }
+    
+    /**
+     * @param bone        the index of the bone
+     * @param destination the matrix to write the transform of the bone relative to its parent to
+     * @return the destination
+     * @throws IndexOutOfBoundsException if there is no bone at the index
+     */
+    @Kapi
+    public Matrix4f getBoneTransform(int bone, Matrix4f destination) {
+        checkBone(bone);
+        return destination.set(locals, bone * STRIDE);
+    }
+    
+    /**
+     * Poses a bone with a clip, the clip is applied after the bone's bind pose.<br>
+     * Meant to be called from a system every tick, one clip per animated bone.
+     *
+     * @param bone the index of the bone
+     * @param clip the clip to sample
+     * @param time the time in ticks to sample the clip at
+     * @throws IndexOutOfBoundsException if there is no bone at the index
+     */
+    @Kapi
+    public void sampleBone(int bone, AnimationClip clip, float time) {
+        checkBone(bone);
+        clip.sample(time, sampledTranslation, sampledRotation, sampledScale, 0);
+        Keyframes.compose(sampledTranslation, sampledRotation, sampledScale, transform);
+        MatrixPalette.mulAffine(rig.getBindTransforms(), bone * STRIDE, transform, 0, locals, bone * STRIDE);
+        dirty = true;
+    }
+    
+    /**
+     * Returns every bone to its bind pose.
+     */
+    @Kapi
+    public void reset() {
+        synchronizeWithRig();
+        System.arraycopy(rig.getBindTransforms(), 0, locals, 0, boneCount * STRIDE);
+        dirty = true;
+    }
+    
+    /**
+     * Evaluates the skeleton and updates the transformations of the bound displays, if any bone changed.
+     *
+     * @param points the points of the object, posed in place
+     * @throws IllegalArgumentException if the rig was modified and a bound point is not a block or item display
+     */
+    // Package-private
+    void apply(PointCloud points) {
+        synchronizeWithRig();
+        if (!dirty) return;
+        dirty = false;
+        
+        MatrixPalette.evaluate(rig.getParents(), locals, rig.getInverseBindTransforms(), boneCount, worlds, palette);
+        
+        for (int part = 0; part < partCount; part++) {
+            int point = rig.getPartPoint(part);
+            if (point >= points.size()) continue;
+            int offset = part * STRIDE;
+            
+            // The entity stays at its point, so the bone's movement of the point goes into the translation:
+            // translate(-point) * skin * translate(point) * bind
+            System.arraycopy(palette, rig.getPartBone(part) * STRIDE, skin, 0, STRIDE);
+            float x = (float) points.getX(point);
+            float y = (float) points.getY(point);
+            float z = (float) points.getZ(point);
+            skin[12] += skin[0] * x + skin[4] * y + skin[8] * z - x;
+            skin[13] += skin[1] * x + skin[5] * y + skin[9] * z - y;
+            skin[14] += skin[2] * x + skin[6] * y + skin[10] * z - z;
+            MatrixPalette.mulAffine(skin, 0, partBinds, offset, transform, 0);
+            
+            if (Arrays.equals(transform, 0, STRIDE, partTransforms, offset, offset + STRIDE)) continue;
+            System.arraycopy(transform, 0, partTransforms, offset, STRIDE);
+            if (points.getRenderable(point) instanceof DisplayData display) {
+                display.setTransformation(toTransformation(transform));
+            }
+        }
+    }
+    
+    private Transformation toTransformation(float[] values) {
+        matrix.set(values);
+        return new Transformation(
+            matrix.getTranslation(new Vector3f()), matrix.getNormalizedRotation(new Quaternionf()),
+            matrix.getScale(new Vector3f()), new Quaternionf()
+        );
+    }
+    
+    /**
+     * Resizes the arrays if bones or bindings were added to the rig since,
+     * which returns every bone to its bind pose.
+     */
+    private void synchronizeWithRig() {
+        if (version == rig.getVersion()) return;
+        boolean created = version == -1;
+        version = rig.getVersion();
+        boneCount = rig.getBoneCount();
+        locals = Arrays.copyOf(rig.getBindTransforms(), boneCount * STRIDE);
+        worlds = new float[boneCount * STRIDE];
+        palette = new float[boneCount * STRIDE];
+        
+        partCount = rig.getBoundPointCount();
+        partBinds = new float[partCount * STRIDE];
+        for (int part = 0; part < partCount; part++) {
+            int point = rig.getPartPoint(part);
+            if (point >= bindPoints.size()) {
+                throw new IllegalArgumentException("Point " + point + " is bound to a bone, "
+                    + "but the template only has " + bindPoints.size() + " points");
+            }
+            Renderable renderable = bindPoints.getRenderable(point);
+            if (!(renderable instanceof BlockDisplayRender) && !(renderable instanceof ItemDisplayRender)) {
+                throw new IllegalArgumentException(
+                    "Point " + point + " is bound to a bone, but it's not a block or item display");
+            }
+            Transformation bind = ((DisplayData) renderable).getTransformation();
+            matrix.translation(bind.getTranslation()).rotate(bind.getLeftRotation())
+                .scale(bind.getScale()).rotate(bind.getRightRotation())
+                .get(partBinds, part * STRIDE);
+        }
+        // New displays start in their bind pose, existing ones may be posed and are all sent again
+        partTransforms = partBinds.clone();
+        if (!created) Arrays.fill(partTransforms, Float.NaN);
+        dirty = !created;
+    }
+    
+    private void checkBone(int bone) {
+        if (bone < 0 || bone >= boneCount) {
+            throw new IndexOutOfBoundsException("Bone " + bone + " out of bounds for " + boneCount + " bones");
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A spatial hash of axis-aligned boxes, for finding all boxes that overlap a query box.<br>
+ * <br>
+ * Space is split into cubic cells, every box is stored in the buckets of the cells it overlaps.
+ * Cells are hashed into a fixed amount of buckets, so cells far apart may share a bucket,
+ * which is fine because every candidate is tested against the query box anyway.<br>
+ * <br>
+ * Boxes are added in bulk and indexed on the first query after adding,
+ * the hash is meant to be cleared and rebuilt rather than updated.
+ *
+ * @param <T> the type of the items stored with the boxes
+ */
+final class SpatialHash<T> {
+    
+    // Items bigger than this are checked by every query instead of filling many buckets
+    private static final int MAX_CELLS_PER_ITEM = 64;
+    
+    private final double inverseCellSize;
+    private Object[] items;
+    private double[] boxes;
+    private int[] stamps;
+    private int size;
+    private int[] buckets;
+    private int[] nodeItems;
+    private int[] nodeNext;
+    private int nodeCount;
+    private int[] largeItems;
+    private int largeCount;
+    private boolean indexed;
+    private int stamp;
+    
+    /**
+     * @param cellSize the size of each cell, ideally about the size of a typical query
+     * @throws IllegalArgumentException if the cell size is not positive
+     */
+    SpatialHash(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.inverseCellSize = 1 / cellSize;
+        this.items = new Object[16];
+        this.boxes = new double[16 * 6];
+        this.stamps = new int[16];
+        this.buckets = new int[0];
+        this.nodeItems = new int[16];
+        this.nodeNext = new int[16];
+        this.largeItems = new int[4];
+    }
+    
+    /**
+     * Removes all items, keeping the allocated memory for reuse.
+     */
+    void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        nodeCount = 0;
+        largeCount = 0;
+        indexed = false;
+    }
+    
+    /**
+     * @return the number of items
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Adds an item with the given box.
+     */
+    void add(T item, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            boxes = Arrays.copyOf(boxes, size * 2 * 6);
+            stamps = Arrays.copyOf(stamps, size * 2);
+        }
+        items[size] = item;
+        int box = size * 6;
+        boxes[box] = minX;
+        boxes[box + 1] = minY;
+        boxes[box + 2] = minZ;
+        boxes[box + 3] = maxX;
+        boxes[box + 4] = maxY;
+        boxes[box + 5] = maxZ;
+        stamps[size] = 0;
+        size++;
+        indexed = false;
+    }
+    
+    /**
+     * Adds all items whose box overlaps the given box to the destination.<br>
+     * Boxes that only touch (share a face) don't overlap.
+     *
+     * @param destination the collection to add the items to, each item is added at most once
+     */
+    @SuppressWarnings("unchecked")
+    void query(
+        double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+        Collection<? super T> destination
+    ) {
+        if (size == 0) return;
+        if (!indexed) index();
+        nextStamp();
+        
+        int minCellX = cell(minX), minCellY = cell(minY), minCellZ = cell(minZ);
+        int maxCellX = cell(maxX), maxCellY = cell(maxY), maxCellZ = cell(maxZ);
+        long cells = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) * (maxCellZ - minCellZ + 1);
+        if (cells > size) {
+            // Visiting every cell of a huge query is slower than checking every item
+            for (int i = 0; i < size; i++) {
+                if (overlaps(i, minX, minY, minZ, maxX, maxY, maxZ)) destination.add((T) items[i]);
+            }
+            return;
+        }
+        
+        for (int x = minCellX; x <= maxCellX; x++) {
+            for (int y = minCellY; y <= maxCellY; y++) {
+                for (int z = minCellZ; z <= maxCellZ; z++) {
+                    for (int node = buckets[bucket(x, y, z)]; node != -1; node = nodeNext[node]) {
+                        int item = nodeItems[node];
+                        if (stamps[item] == stamp) continue;
+                        stamps[item] = stamp;
+                        if (overlaps(item, minX, minY, minZ, maxX, maxY, maxZ)) destination.add((T) items[item]);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < largeCount; i++) {
+            int item = largeItems[i];
+            if (overlaps(item, minX, minY, minZ, maxX, maxY, maxZ)) destination.add((T) items[item]);
+        }
+    }
+    
+    private void index() {
+        indexed = true;
+        nodeCount = 0;
+        largeCount = 0;
+        // Roughly 2 buckets per item, as a power of 2 so the hash can be masked
+        int bucketCount = Integer.highestOneBit(Math.max(16, size * 2 - 1)) << 1;
+        if (buckets.length != bucketCount) {
+            buckets = new int[bucketCount];
+        }
+        Arrays.fill(buckets, -1);
+        
+        for (int i = 0; i < size; i++) {
+            int box = i * 6;
+            int minCellX = cell(boxes[box]), minCellY = cell(boxes[box + 1]), minCellZ = cell(boxes[box + 2]);
+            int maxCellX = cell(boxes[box + 3]), maxCellY = cell(boxes[box + 4]), maxCellZ = cell(boxes[box + 5]);
+            long cells = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) * (maxCellZ - minCellZ + 1);
+            if (cells > MAX_CELLS_PER_ITEM) {
+                if (largeCount == largeItems.length) {
+                    largeItems = Arrays.copyOf(largeItems, largeCount * 2);
+                }
+                largeItems[largeCount++] = i;
+                continue;
+            }
+            
+            for (int x = minCellX; x <= maxCellX; x++) {
+                for (int y = minCellY; y <= maxCellY; y++) {
+                    for (int z = minCellZ; z <= maxCellZ; z++) {
+                        if (nodeCount == nodeItems.length) {
+                            nodeItems = Arrays.copyOf(nodeItems, nodeCount * 2);
+                            nodeNext = Arrays.copyOf(nodeNext, nodeCount * 2);
+                        }
+                        int bucket = bucket(x, y, z);
+                        nodeItems[nodeCount] = i;
+                        nodeNext[nodeCount] = buckets[bucket];
+                        buckets[bucket] = nodeCount++;
+                    }
+                }
+            }
+        }
+    }
+    
+    private void nextStamp() {
+        stamp++;
+        if (stamp == 0) {
+            // Wrapped around, old stamps could match again
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+    
+    private boolean overlaps(int item, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        int box = item * 6;
+        return boxes[box] < maxX && boxes[box + 3] > minX
+            && boxes[box + 1] < maxY && boxes[box + 4] > minY
+            && boxes[box + 2] < maxZ && boxes[box + 5] > minZ;
+    }
+    
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+    
+    private int bucket(int x, int y, int z) {
+        int hash = x * 73856093 ^ y * 19349663 ^ z * 83492791;
+        return hash & (buckets.length - 1);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import java.util.Arrays;
+
+/**
+ * A sweep and prune broadphase, finds all pairs of overlapping axis-aligned boxes.<br>
+ * <br>
+ * Boxes are sorted by their minimum x, then each box is only tested against the boxes after it
+ * that start before it ends on the x-axis.
+ * This costs a sort plus the number of boxes overlapping on the x-axis,
+ * instead of testing every box against every other box.
+ */
+final class SweepAndPrune {
+    
+    /**
+     * Receives the overlapping pairs, in no particular order.
+     */
+    @FunctionalInterface
+    interface PairConsumer {
+        /**
+         * @param first  the index of a box, in the order they were added
+         * @param second the index of the other box, never equal to first
+         */
+        void accept(int first, int second);
+    }
+    
+    private double[] boxes;
+    private long[] order;
+    private int size;
+    
+    SweepAndPrune() {
+        this.boxes = new double[16 * 6];
+        this.order = new long[16];
+    }
+    
+    void clear() {
+        size = 0;
+    }
+    
+    /**
+     * @return the number of boxes
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Adds a box, its index is the number of boxes added before it.
+     */
+    void add(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (size == order.length) {
+            order = Arrays.copyOf(order, size * 2);
+            boxes = Arrays.copyOf(boxes, size * 2 * 6);
+        }
+        int box = size * 6;
+        boxes[box] = minX;
+        boxes[box + 1] = minY;
+        boxes[box + 2] = minZ;
+        boxes[box + 3] = maxX;
+        boxes[box + 4] = maxY;
+        boxes[box + 5] = maxZ;
+        size++;
+    }
+    
+    /**
+     * Finds all pairs of boxes that overlap, boxes that only touch (share a face) don't overlap.
+     *
+     * @param consumer called once for every overlapping pair
+     */
+    void findPairs(PairConsumer consumer) {
+        // The minimum x rounded down to a float, and the index, packed in a long so sorting doesn't allocate
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) sortableBits(boxes[i * 6]) << 32) | i;
+        }
+        Arrays.sort(order, 0, size);
+        
+        for (int i = 0; i < size; i++) {
+            int first = (int) order[i];
+            int box = first * 6;
+            double maxX = boxes[box + 3];
+            for (int j = i + 1; j < size; j++) {
+                // The rounded minimum is never above the real one, so no pair is missed
+                if (Float.intBitsToFloat(unsortableBits((int) (order[j] >> 32))) >= maxX) break;
+                int second = (int) order[j];
+                if (overlaps(box, second * 6)) consumer.accept(first, second);
+            }
+        }
+    }
+    
+    private boolean overlaps(int a, int b) {
+        return boxes[a] < boxes[b + 3] && boxes[a + 3] > boxes[b]
+            && boxes[a + 1] < boxes[b + 4] && boxes[a + 4] > boxes[b + 1]
+            && boxes[a + 2] < boxes[b + 5] && boxes[a + 5] > boxes[b + 2];
+    }
+    
+    /**
+     * @return the bits of the value rounded down to a float,
+     *     flipped so comparing them as signed ints gives the same order as comparing the floats
+     */
+    private static int sortableBits(double value) {
+        float rounded = (float) value;
+        if (rounded > value) rounded = Math.nextDown(rounded);
+        int bits = Float.floatToIntBits(rounded);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+    
+    private static int unsortableBits(int bits) {
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+}
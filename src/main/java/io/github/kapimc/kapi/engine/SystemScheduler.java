@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
+import io.github.kapimc.kapi.utility.Log;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs the interval and delay systems of all spawned objects from the engine tick.<br>
+ * <br>
+ * Instead of a task per object per system, objects are grouped by (system, delay, period).
+ * Each repeating group splits its objects into one bucket per phase (the tick they run at, modulo the period),
+ * so every tick only the bucket that is due is iterated.
+ * One shot groups have a single bucket, skipped until its earliest due tick.<br>
+ * Despawned objects unsubscribe, removing themselves from their buckets,
+ * and groups without objects are removed.<br>
+ * <br>
+ * Buckets of {@link SystemTrigger#parallel() parallel} systems are split into chunks
+ * that run on a shared worker pool, the main thread waits for all chunks to finish.
+ */
+final class SystemScheduler {
+    
+    // Small buckets are cheaper to run on the main thread than to hand off
+    private static final int PARALLEL_CHUNK_SIZE = 256;
+    
+    private record GroupKey(Consumer<Object3D> system, int delay, int period, boolean parallel) {}
+    
+    private final HashMap<GroupKey,Group> groupsByKey;
+    private final List<Group> groups;
+    private int subscriptionCount;
+    private boolean ticking;
+    private boolean hasEmptyGroups;
+    private @Nullable ForkJoinPool pool;
+    
+    SystemScheduler() {
+        this.groupsByKey = new HashMap<>();
+        this.groups = new ArrayList<>();
+    }
+    
+    /**
+     * Subscribes an object to a system, the first run is after the delay,
+     * a delay of 0 means the next tick.
+     *
+     * @param currentTick the current engine tick
+     * @return the subscription, used to unsubscribe
+     */
+    Subscription subscribe(Object3D object, SystemTrigger trigger, Consumer<Object3D> system, long currentTick) {
+        GroupKey key = new GroupKey(system, trigger.getDelay(), trigger.getPeriod(), trigger.isParallel());
+        Group group = groupsByKey.get(key);
+        if (group == null) {
+            group = new Group(key);
+            groupsByKey.put(key, group);
+            groups.add(group);
+        }
+        long firstTick = currentTick + trigger.getDelay() + 1;
+        Bucket bucket = group.buckets[(int) (firstTick % group.buckets.length)];
+        Subscription subscription = new Subscription(object, group, bucket, firstTick);
+        bucket.add(subscription);
+        group.size++;
+        subscriptionCount++;
+        return subscription;
+    }
+    
+    void unsubscribe(Subscription subscription) {
+        if (subscription.removed) return;
+        subscription.removed = true;
+        subscription.bucket.remove(subscription);
+        subscriptionCount--;
+        
+        Group group = subscription.group;
+        if (--group.size > 0) return;
+        if (ticking) {
+            // Removing while ticking would skip the next group, removed once the tick is done
+            hasEmptyGroups = true;
+        } else {
+            removeGroup(group);
+        }
+    }
+    
+    /**
+     * Runs all systems that are due this tick.
+     */
+    void tick(long tick) {
+        ticking = true;
+        // Indexed loop, systems may spawn objects with new systems
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            Bucket bucket = group.buckets[(int) (tick % group.buckets.length)];
+            bucket.run(this, group, tick);
+        }
+        ticking = false;
+        
+        if (hasEmptyGroups) {
+            hasEmptyGroups = false;
+            // A group may have been subscribed to again after it emptied
+            for (int i = groups.size() - 1; i >= 0; i--) {
+                Group group = groups.get(i);
+                if (group.size == 0) removeGroup(group);
+            }
+        }
+    }
+    
+    private void removeGroup(Group group) {
+        groupsByKey.remove(group.key);
+        groups.remove(group);
+    }
+    
+    /**
+     * Shuts down the worker pool so its threads don't outlive the plugin,
+     * a later parallel system creates a new pool.
+     */
+    void shutdown() {
+        if (pool == null) return;
+        pool.shutdown();
+        pool = null;
+    }
+    
+    private ForkJoinPool getPool() {
+        if (pool == null) {
+            // Leave a core for the server, the main thread is blocked in invoke until all chunks finish
+            pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return pool;
+    }
+    
+    private static void run(Group group, Subscription subscription) {
+        try {
+            group.system.accept(subscription.object);
+        } catch (RuntimeException e) {
+            Log.error("An error occurred while running a system!");
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * @return the number of (system, delay, period) groups
+     */
+    int getGroupCount() {
+        return groups.size();
+    }
+    
+    /**
+     * @return the number of objects subscribed to systems, counted once per system
+     */
+    int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+    
+    private static final class Group {
+        private final GroupKey key;
+        private final Consumer<Object3D> system;
+        private final boolean repeating;
+        private final boolean parallel;
+        private final Bucket[] buckets;
+        private int size;
+        
+        private Group(GroupKey key) {
+            this.key = key;
+            this.system = key.system();
+            this.repeating = key.period() > 0;
+            this.parallel = key.parallel();
+            // One shot systems run once, each subscription at its own due tick,
+            // so a bucket per tick of the delay would only be used once per subscription
+            int bucketCount = repeating ? key.period() : 1;
+            this.buckets = new Bucket[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+    }
+    
+    private static final class Bucket {
+        private Subscription[] subscriptions = new Subscription[4];
+        private int size;
+        private long nextTick = Long.MAX_VALUE;
+        private boolean running;
+        private boolean dirty;
+        
+        private void add(Subscription subscription) {
+            nextTick = Math.min(nextTick, subscription.firstTick);
+            if (size == subscriptions.length) {
+                subscriptions = Arrays.copyOf(subscriptions, size * 2);
+            }
+            subscription.slot = size;
+            subscriptions[size++] = subscription;
+        }
+        
+        private void remove(Subscription subscription) {
+            if (running) {
+                // Removing while running would move a subscription that didn't run yet
+                dirty = true;
+                return;
+            }
+            int last = --size;
+            Subscription moved = subscriptions[last];
+            subscriptions[subscription.slot] = moved;
+            moved.slot = subscription.slot;
+            subscriptions[last] = null;
+        }
+        
+        private void run(SystemScheduler scheduler, Group group, long tick) {
+            if (tick < nextTick) return;
+            running = true;
+            // Subscriptions added while running lower it again
+            nextTick = Long.MAX_VALUE;
+            long next = Long.MAX_VALUE;
+            if (group.parallel && size > PARALLEL_CHUNK_SIZE) {
+                scheduler.getPool().invoke(new Chunk(this, group, tick, 0, size));
+                // Unsubscribing isn't thread safe, so it's done afterward on the main thread
+                for (int i = 0, end = size; i < end; i++) {
+                    Subscription subscription = subscriptions[i];
+                    if (subscription.removed) continue;
+                    if (!group.repeating && subscription.firstTick <= tick) {
+                        scheduler.unsubscribe(subscription);
+                    } else {
+                        next = Math.min(next, subscription.firstTick);
+                    }
+                }
+            } else {
+                // Subscriptions added while running are due in a later tick
+                for (int i = 0, end = size; i < end; i++) {
+                    Subscription subscription = subscriptions[i];
+                    if (subscription.removed) continue;
+                    if (subscription.firstTick > tick) {
+                        next = Math.min(next, subscription.firstTick);
+                        continue;
+                    }
+                    SystemScheduler.run(group, subscription);
+                    if (!group.repeating) {
+                        scheduler.unsubscribe(subscription);
+                    } else {
+                        next = Math.min(next, subscription.firstTick);
+                    }
+                }
+            }
+            nextTick = Math.min(nextTick, next);
+            running = false;
+            if (dirty) {
+                dirty = false;
+                compact();
+            }
+        }
+        
+        private void compact() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                Subscription subscription = subscriptions[i];
+                if (subscription.removed) continue;
+                subscription.slot = kept;
+                subscriptions[kept++] = subscription;
+            }
+            Arrays.fill(subscriptions, kept, size, null);
+            size = kept;
+        }
+    }
+    
+    /**
+     * A range of a bucket, split in half until it's small enough to run on a single thread.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private final Bucket bucket;
+        private final Group group;
+        private final long tick;
+        private final int start;
+        private final int end;
+        
+        private Chunk(Bucket bucket, Group group, long tick, int start, int end) {
+            this.bucket = bucket;
+            this.group = group;
+            this.tick = tick;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        protected void compute() {
+            if (end - start > PARALLEL_CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Chunk(bucket, group, tick, start, middle), new Chunk(bucket, group, tick, middle, end));
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                Subscription subscription = bucket.subscriptions[i];
+                if (subscription.removed || subscription.firstTick > tick) continue;
+                SystemScheduler.run(group, subscription);
+            }
+        }
+    }
+    
+    /**
+     * An object subscribed to a system.
+     */
+    static final class Subscription {
+        private final Object3D object;
+        private final Group group;
+        private final Bucket bucket;
+        private final long firstTick;
+        private int slot;
+        private boolean removed;
+        
+        private Subscription(Object3D object, Group group, Bucket bucket, long firstTick) {
+            this.object = object;
+            this.group = group;
+            this.bucket = bucket;
+            this.firstTick = firstTick;
+        }
+    }
+}
@@ -10,6 +10,7 @@ package io.github.kapimc.kapi.engine;
 import io.github.kapimc.kapi.annotations.Kapi;
 import io.github.kapimc.kapi.data.Option;
 import io.github.kapimc.kapi.data.Pair;
+import io.github.kapimc.kapi.engine.ecs.ComponentKey;
 import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -26,28 +27,37 @@ import java.util.stream.Stream;
  */
 @Kapi
 public final class Template3D {
-    private final List<Point> points;
+    private final PointCloud points;
+    private final TreeMap<Double,PointCloud> levelsOfDetail;
     private final HashMap<String,Pair<Matrix4f,Template3D>> children;
     private final HashMap<String,@Nullable Object> components;
-    private final HashMap<String,List<Consumer<Object3D>>> events;
+    private final EventListeners events;
     private final List<Pair<SystemTrigger,Consumer<Object3D>>> tasks;
+    private final ArrayDeque<Object3D> pool;
+    private int poolSize;
+    private @Nullable Rig rig;
+    private @Nullable CompiledTemplate compiled;
+    private int compiledModificationCount;
     
     
     @Kapi
     public Template3D(List<Point> points) {
-        this.points = points;
+        this.points = new PointCloud(points);
+        this.levelsOfDetail = new TreeMap<>();
         this.children = new HashMap<>();
         this.components = new HashMap<>();
-        this.events = new HashMap<>();
+        this.events = new EventListeners();
         this.tasks = new ArrayList<>();
+        this.pool = new ArrayDeque<>();
     }
     
     /**
      * Gets the points of this template.<br>
-     * Modifying the returned list will affect the template's points.<br>
+     * The returned points are copies, modifying them won't affect the template's points.<br>
      * <br>
      * To add a point, use {@link #addPoint(Point)}<br>
      * To remove a point, use {@link #removePointIf(Predicate)}<br>
+     * To modify points in place, use {@link #getPointCloud()}<br>
      *
      * @return A stream of points
      */
@@ -56,6 +66,20 @@ public final class Template3D {
         return points.stream();
     }
     
+    /**
+     * Gets the packed points of this template.<br>
+     * Modifying the returned point cloud will affect the template's points,
+     * but not the points of instances that were already created.<br>
+     * <br>
+     * Note: modifying the cloud recompiles the template and clears its pool on the next instantiation
+     *
+     * @return The point cloud of this template
+     */
+    @Kapi
+    public PointCloud getPointCloud() {
+        return points;
+    }
+    
     /**
      * Adds a point to this template.<br>
      * <br>
@@ -67,6 +91,7 @@ public final class Template3D {
      */
     @Kapi
     public void addPoint(Point point) {
+        modified();
         points.add(point);
     }
     
@@ -80,7 +105,9 @@ public final class Template3D {
      */
     @Kapi
     public void addPoints(List<Point> points) {
-        this.points.addAll(points);
+        modified();
+        this.points.ensureCapacity(this.points.size() + points.size());
+        points.forEach(this.points::add);
     }
     
     /**
@@ -93,7 +120,7 @@ public final class Template3D {
      */
     @Kapi
     public void addPoints(Point... points) {
-        this.points.addAll(Arrays.asList(points));
+        addPoints(Arrays.asList(points));
     }
     
     /**
@@ -103,9 +130,57 @@ public final class Template3D {
      */
     @Kapi
     public void removePointIf(Predicate<Point> predicate) {
+        modified();
         points.removeIf(predicate);
     }
     
+    /**
+     * Adds a level of detail to this template.<br>
+     * <br>
+     * When the nearest player is at least the given distance away from an instance,
+     * the instance renders these points instead of the template's points.
+     * Use fewer points for larger distances, so far away effects send fewer particles.<br>
+     * If there are multiple levels of detail, the one with the largest distance
+     * that the nearest player is past is used.<br>
+     * <br>
+     * Note: levels of detail are only rendered, never spawned or despawned,
+     * so all renderables must be {@link io.github.kapimc.kapi.engine.renderable.Renderable#isShareable() shareable},
+     * like particles<br>
+     * Adding a level of detail with the same distance replaces the previous one<br>
+     * Levels of detail can't be combined with a rig, as its bindings index the template's points
+     *
+     * @param distance The distance in blocks from which these points are used
+     * @param points   The points to render at this distance
+     * @throws IllegalArgumentException If the distance is not positive or a renderable isn't shareable
+     * @throws IllegalStateException    If the template has a rig, see {@link #setRig(Rig)}
+     */
+    @Kapi
+    public void addLevelOfDetail(double distance, List<Point> points) {
+        if (rig != null) {
+            throw new IllegalStateException("Cannot add a level of detail to a rigged template");
+        }
+        if (!(distance > 0)) {
+            throw new IllegalArgumentException("Level of detail distance must be positive");
+        }
+        for (Point point : points) {
+            if (!point.getRenderable().isShareable()) {
+                throw new IllegalArgumentException("Level of detail renderables must be shareable");
+            }
+        }
+        levelsOfDetail.put(distance, new PointCloud(points));
+        modified();
+    }
+    
+    /**
+     * Removes all levels of detail,
+     * instances created afterwards always render the template's points.
+     */
+    @Kapi
+    public void clearLevelsOfDetail() {
+        modified();
+        levelsOfDetail.clear();
+    }
+    
     /**
      * Adds a child to this template.<br>
      * See {@link #addChild(String, Template3D, Matrix4f)} for adding a child with a transform.<br>
@@ -116,6 +191,7 @@ public final class Template3D {
     @Kapi
     public void addChild(String name, Template3D child) {
         children.put(name, Pair.of(new Matrix4f(), child));
+        modified();
     }
     
     /**
@@ -131,6 +207,7 @@ public final class Template3D {
         String name, Template3D child, Matrix4f transform
     ) {
         children.put(name, Pair.of(transform, child));
+        modified();
     }
     
     /**
@@ -141,6 +218,7 @@ public final class Template3D {
      */
     @Kapi
     public Option<Template3D> removeChild(String name) {
+        modified();
         return Option.of(children.remove(name)).map(Pair::getSecond);
     }
     
@@ -153,7 +231,9 @@ public final class Template3D {
     public void removeChildIf(
         Predicate<Map.Entry<String,Pair<Matrix4f,Template3D>>> predicate
     ) {
-        children.entrySet().removeIf(predicate);
+        if (children.entrySet().removeIf(predicate)) {
+            modified();
+        }
     }
     
     /**
@@ -188,6 +268,21 @@ public final class Template3D {
     @Kapi
     public void setDefault(String key, @Nullable Object value) {
         components.put(key, value);
+        modified();
+    }
+    
+    /**
+     * Sets the default value of a component.<br>
+     * This value will be set on all instances of this template when they are spawned.
+     *
+     * @param key   The key of the component
+     * @param value The default value of the component
+     * @param <T>   The type of the component
+     */
+    @Kapi
+    public <T> void setDefault(ComponentKey<T> key, @Nullable T value) {
+        components.put(key.getName(), value);
+        modified();
     }
     
     /**
@@ -202,23 +297,147 @@ public final class Template3D {
         SystemTrigger trigger, Consumer<Object3D> system
     ) {
         if (trigger.isEvent()) {
-            events.computeIfAbsent(trigger.getEvent(), k -> new ArrayList<>()).add(system);
+            events.add(trigger.getEventId(), system);
         } else {
             tasks.add(Pair.of(trigger, system));
         }
+        modified();
         return this;
     }
     
+    /**
+     * Sets the rig of this template, every instance gets its own pose of it, see {@link Object3D#getRigPose()}.<br>
+     * <br>
+     * Note: the rig is shared with the instances, adding bones or bindings to it afterward
+     * returns the instances to their bind pose<br>
+     * A rig can't be combined with levels of detail, as its bindings index the template's points
+     *
+     * @param rig The rig, null to remove it
+     * @throws IllegalStateException If the rig isn't null and the template has levels of detail,
+     *                               see {@link #addLevelOfDetail(double, List)}
+     */
+    @Kapi
+    public void setRig(@Nullable Rig rig) {
+        if (rig != null && !levelsOfDetail.isEmpty()) {
+            throw new IllegalStateException("Cannot rig a template with levels of detail");
+        }
+        this.rig = rig;
+        modified();
+    }
+    
+    /**
+     * @return The rig of this template, null if it has none
+     * @see #setRig(Rig)
+     */
+    @Kapi
+    public @Nullable Rig getRig() {
+        return rig;
+    }
+    
+    /**
+     * Sets how many despawned instances of this template are kept for reuse.<br>
+     * <br>
+     * When a root instance (an instance without a parent) is despawned, it's returned to the pool,
+     * and the next {@link #newInstance(World, Matrix4f)} or {@link #newInstance(Location)}
+     * resets and returns it instead of creating a new instance.<br>
+     * Reusing an instance only resets its transform, world, components, systems and visibility,
+     * its points and children are only recreated if the instance modified them,
+     * so effects that are spawned and despawned many times a second barely allocate.<br>
+     * <br>
+     * Note: don't use an instance after despawning it, it may already be reused as another instance<br>
+     * Note: modifying this template through its methods clears the pool,
+     * modifying its point cloud or child templates directly doesn't,
+     * call {@link #clearPool()} afterward so instances see the changes
+     *
+     * @param size The maximum amount of pooled instances, 0 to disable pooling (the default)
+     * @throws IllegalArgumentException If the size is negative
+     */
+    @Kapi
+    public void setPoolSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Pool size cannot be negative");
+        }
+        this.poolSize = size;
+        while (pool.size() > size) {
+            pool.pop().setPooled(false);
+        }
+    }
+    
+    /**
+     * @return The maximum amount of pooled instances, 0 if pooling is disabled
+     * @see #setPoolSize(int)
+     */
+    @Kapi
+    public int getPoolSize() {
+        return poolSize;
+    }
+    
+    /**
+     * @return The amount of instances currently in the pool
+     * @see #setPoolSize(int)
+     */
+    @Kapi
+    public int getPooledInstanceCount() {
+        return pool.size();
+    }
+    
+    /**
+     * Removes all instances from the pool, new instances are created from scratch.
+     *
+     * @see #setPoolSize(int)
+     */
+    @Kapi
+    public void clearPool() {
+        for (Object3D instance : pool) {
+            instance.setPooled(false);
+        }
+        pool.clear();
+    }
+    
+    // Package-private, called when a root instance is despawned
+    void recycle(Object3D instance) {
+        if (instance.isPooled() || pool.size() >= poolSize) return;
+        instance.setPooled(true);
+        pool.push(instance);
+    }
+    
+    private @Nullable Object3D takePooled(World world, Matrix4f transform) {
+        CompiledTemplate snapshot = compile();
+        while (!pool.isEmpty()) {
+            Object3D instance = pool.pop();
+            // Instances that were spawned again while in the pool are skipped,
+            // and so are instances recycled after the template was modified
+            if (!instance.isPooled() || !instance.isCompiledFrom(snapshot)) {
+                instance.setPooled(false);
+                continue;
+            }
+            instance.reuse(world, transform);
+            return instance;
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the snapshot instances are created from, compiling it if the template was modified since.
+     *
+     * @return The compiled template
+     */
     // Package-private
-    HashMap<String,List<Consumer<Object3D>>> getEvents() {
-        Consumer<Object3D> setDefaultsSystem = instance -> components.forEach(instance::set);
-        events.computeIfAbsent(SystemTrigger.SPAWN_EVENT, k -> new ArrayList<>())
-            .add(setDefaultsSystem);
-        return events;
+    CompiledTemplate compile() {
+        // The point cloud may have been modified in place, see getPointCloud()
+        if (compiled != null && compiledModificationCount != points.getModificationCount()) {
+            modified();
+        }
+        if (compiled == null) {
+            compiled = new CompiledTemplate(points, levelsOfDetail, children, components, events, tasks, rig);
+            compiledModificationCount = points.getModificationCount();
+        }
+        return compiled;
     }
     
-    List<Pair<SystemTrigger,Consumer<Object3D>>> getTasks() {
-        return tasks;
+    private void modified() {
+        compiled = null;
+        clearPool();
     }
     
     /**
@@ -248,6 +467,8 @@ public final class Template3D {
      */
     @Kapi
     public Object3D newInstance(World world, Matrix4f transform) {
+        Object3D pooled = takePooled(world, transform);
+        if (pooled != null) return pooled;
         return new Object3D(this, world, transform, null);
     }
     
@@ -291,11 +512,6 @@ public final class Template3D {
         if (world == null) {
             throw new IllegalArgumentException("Location world cannot be null");
         }
-        return new Object3D(
-            this,
-            world,
-            new Matrix4f().translate(location.toVector().toVector3f()),
-            null
-        );
+        return newInstance(world, new Matrix4f().translate(location.toVector().toVector3f()));
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * A snapshot of the positions of all online players, taken once per engine tick.<br>
+ * Stored as flat arrays so queries don't allocate and don't touch the Bukkit API.
+ */
+final class ViewerSnapshot {
+    private final Location scratch;
+    private Player[] players;
+    private World[] worlds;
+    private double[] xs;
+    private double[] ys;
+    private double[] zs;
+    private int size;
+    
+    ViewerSnapshot() {
+        this.scratch = new Location(null, 0, 0, 0);
+        this.players = new Player[16];
+        this.worlds = new World[16];
+        this.xs = new double[16];
+        this.ys = new double[16];
+        this.zs = new double[16];
+    }
+    
+    void update() {
+        size = 0;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (size == worlds.length) {
+                int capacity = size * 2;
+                players = Arrays.copyOf(players, capacity);
+                worlds = Arrays.copyOf(worlds, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+            }
+            player.getLocation(scratch);
+            players[size] = player;
+            worlds[size] = player.getWorld();
+            xs[size] = scratch.getX();
+            ys[size] = scratch.getY();
+            zs[size] = scratch.getZ();
+            size++;
+        }
+        // Don't keep references to players that logged off
+        Arrays.fill(players, size, players.length, null);
+        Arrays.fill(worlds, size, worlds.length, null);
+    }
+    
+    /**
+     * @return the number of players in the snapshot
+     */
+    int size() {
+        return size;
+    }
+    
+    Player getPlayer(int index) {
+        return players[index];
+    }
+    
+    World getWorld(int index) {
+        return worlds[index];
+    }
+    
+    double getX(int index) {
+        return xs[index];
+    }
+    
+    double getY(int index) {
+        return ys[index];
+    }
+    
+    double getZ(int index) {
+        return zs[index];
+    }
+    
+    /**
+     * @return the squared distance to the nearest player in the given world,
+     *     or {@link Double#POSITIVE_INFINITY} if there are no players in that world
+     */
+    double distanceSquaredToNearest(World world, double x, double y, double z) {
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            if (worlds[i] != world) continue;
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dz = zs[i] - z;
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < nearest) nearest = distance;
+        }
+        return nearest;
+    }
+    
+    /**
+     * @return true if any player in the given world is inside the bounds, false otherwise
+     */
+    boolean isAnyPlayerInside(World world, CullingBounds bounds) {
+        for (int i = 0; i < size; i++) {
+            if (worlds[i] == world && bounds.contains(xs[i], ys[i], zs[i])) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+import java.util.Arrays;
+
+/**
+ * All entities of an {@link EcsWorld} that have the exact same set of components.<br>
+ * <br>
+ * Every component is stored in a packed {@code float[]} column,
+ * the values of the entity at row {@code r} start at {@code r * width}.
+ * Rows are dense, from 0 to {@link #size()} (exclusive), so a system can
+ * process a whole archetype with a single loop over its columns.<br>
+ * <br>
+ * Note: columns are replaced when the archetype grows,
+ * don't keep a reference to a column after adding entities
+ */
+@Kapi
+public final class Archetype {
+    
+    private final long mask;
+    private final ColumnComponent[] components;
+    private final float[][] columns;
+    private int[] entities;
+    private int size;
+    
+    Archetype(long mask, ColumnComponent[] components) {
+        this.mask = mask;
+        this.components = components;
+        this.columns = new float[ColumnComponent.MAX_COMPONENTS][];
+        for (ColumnComponent component : components) {
+            columns[component.getIndex()] = new float[0];
+        }
+        this.entities = new int[0];
+    }
+    
+    /**
+     * @return the number of entities in this archetype
+     */
+    @Kapi
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @param row the row of the entity
+     * @return the id of the entity at the given row
+     */
+    @Kapi
+    public int getEntity(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return entities[row];
+    }
+    
+    /**
+     * @param component the component
+     * @return true if entities of this archetype have the component, false otherwise
+     */
+    @Kapi
+    public boolean has(ColumnComponent component) {
+        return (mask & component.mask()) != 0;
+    }
+    
+    /**
+     * Gets the column of a component.<br>
+     * The column may be longer than needed, only the first {@code size() * width} floats are used.
+     *
+     * @param component the component
+     * @return the column of the component, modifying it modifies the entities
+     * @throws IllegalArgumentException if entities of this archetype don't have the component
+     */
+    @Kapi
+    public float[] getColumn(ColumnComponent component) {
+        float[] column = columns[component.getIndex()];
+        if (column == null) {
+            throw new IllegalArgumentException("Archetype doesn't have the component " + component.getName());
+        }
+        return column;
+    }
+    
+    long getMask() {
+        return mask;
+    }
+    
+    ColumnComponent[] getComponents() {
+        return components;
+    }
+    
+    /**
+     * Adds an entity with all of its values set to 0.
+     *
+     * @return the row of the entity
+     */
+    int add(int entity) {
+        if (size == entities.length) {
+            int capacity = Math.max(16, size * 2);
+            entities = Arrays.copyOf(entities, capacity);
+            for (ColumnComponent component : components) {
+                int index = component.getIndex();
+                columns[index] = Arrays.copyOf(columns[index], capacity * component.getWidth());
+            }
+        }
+        entities[size] = entity;
+        return size++;
+    }
+    
+    /**
+     * Removes the entity at the given row by moving the last entity into it.
+     *
+     * @return the id of the entity that was moved into the row, or -1 if the row was the last one
+     */
+    int remove(int row) {
+        int last = --size;
+        int moved = -1;
+        for (ColumnComponent component : components) {
+            int width = component.getWidth();
+            float[] column = columns[component.getIndex()];
+            if (row != last) {
+                java.lang.System.arraycopy(column, last * width, column, row * width, width);
+            }
+            // New entities expect their values to start at 0
+            Arrays.fill(column, last * width, last * width + width, 0);
+        }
+        if (row != last) {
+            moved = entities[last];
+            entities[row] = moved;
+        }
+        return moved;
+    }
+    
+    /**
+     * Copies the values of all components both archetypes have.
+     */
+    void copyRow(int row, Archetype destination, int destinationRow) {
+        for (ColumnComponent component : components) {
+            if (!destination.has(component)) continue;
+            int width = component.getWidth();
+            java.lang.System.arraycopy(
+                columns[component.getIndex()], row * width,
+                destination.columns[component.getIndex()], destinationRow * width,
+                width
+            );
+        }
+    }
+}
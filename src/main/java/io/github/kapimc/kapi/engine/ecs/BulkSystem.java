@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+/**
+ * A system of an {@link EcsWorld}, called once per matching {@link Archetype}
+ * instead of once per entity.<br>
+ * <br>
+ * Example, moving every entity by its velocity:
+ * <pre>{@code
+ *     world.run((archetype) -> {
+ *         float[] position = archetype.getColumn(POSITION);
+ *         float[] velocity = archetype.getColumn(VELOCITY);
+ *         for (int i = 0, end = archetype.size() * 3; i < end; i++) {
+ *             position[i] += velocity[i];
+ *         }
+ *     }, POSITION, VELOCITY);
+ * }</pre>
+ */
+@Kapi
+@FunctionalInterface
+public interface BulkSystem {
+    
+    /**
+     * Runs the system over all entities of the archetype.
+     *
+     * @param archetype an archetype that has all components the system requires
+     */
+    @Kapi
+    void run(Archetype archetype);
+}
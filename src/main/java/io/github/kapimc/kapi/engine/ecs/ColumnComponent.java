@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+import java.util.HashMap;
+
+/**
+ * A component of an {@link EcsWorld}, made of a fixed amount of floats.<br>
+ * For example, a position or a velocity has a width of 3 (x, y, z).<br>
+ * <br>
+ * The values of a component are stored in a single {@code float[]} column per {@link Archetype},
+ * each entity takes {@code width} consecutive floats.<br>
+ * <br>
+ * Components are identified by their name, create them once and store them in a constant.
+ * Note: there can be at most 64 column components
+ */
+@Kapi
+public final class ColumnComponent {
+    
+    /**
+     * The maximum amount of column components, every archetype stores its components as a 64-bit mask.
+     */
+    @Kapi
+    public static final int MAX_COMPONENTS = 64;
+    
+    private static final HashMap<String,ColumnComponent> COMPONENTS = new HashMap<>();
+    private static final ColumnComponent[] BY_INDEX = new ColumnComponent[MAX_COMPONENTS];
+    
+    private final String name;
+    private final int width;
+    private final int index;
+    
+    private ColumnComponent(String name, int width, int index) {
+        this.name = name;
+        this.width = width;
+        this.index = index;
+    }
+    
+    /**
+     * Gets a column component, creating it if it doesn't exist.
+     *
+     * @param name  the name of the component
+     * @param width the amount of floats of the component
+     * @return the component
+     * @throws IllegalArgumentException if the width is less than 1,
+     *                                  or a component with the same name but a different width exists
+     * @throws IllegalStateException    if there are already {@link #MAX_COMPONENTS} components
+     */
+    @Kapi
+    public static synchronized ColumnComponent of(String name, int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Component width must be at least 1");
+        }
+        ColumnComponent existing = COMPONENTS.get(name);
+        if (existing != null) {
+            if (existing.width != width) {
+                throw new IllegalArgumentException("Component " + name + " already exists with width " + existing.width);
+            }
+            return existing;
+        }
+        if (COMPONENTS.size() == MAX_COMPONENTS) {
+            throw new IllegalStateException("Cannot create more than " + MAX_COMPONENTS + " column components");
+        }
+        ColumnComponent component = new ColumnComponent(name, width, COMPONENTS.size());
+        COMPONENTS.put(name, component);
+        BY_INDEX[component.index] = component;
+        return component;
+    }
+    
+    /**
+     * @return the name of the component
+     */
+    @Kapi
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * @return the amount of floats of the component
+     */
+    @Kapi
+    public int getWidth() {
+        return width;
+    }
+    
+    /**
+     * @return the unique index of the component, between 0 and {@link #MAX_COMPONENTS} (exclusive)
+     */
+    @Kapi
+    public int getIndex() {
+        return index;
+    }
+    
+    static synchronized ColumnComponent byIndex(int index) {
+        return BY_INDEX[index];
+    }
+    
+    long mask() {
+        return 1L << index;
+    }
+    
+    static long mask(ColumnComponent... components) {
+        long mask = 0;
+        for (ColumnComponent component : components) {
+            mask |= component.mask();
+        }
+        return mask;
+    }
+    
+    @Override
+    public String toString() {
+        return "ColumnComponent{" + name + ", " + width + "}";
+    }
+}
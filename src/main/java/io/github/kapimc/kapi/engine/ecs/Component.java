@@ -11,7 +11,9 @@ import io.github.kapimc.kapi.annotations.Kapi;
 import io.github.kapimc.kapi.engine.Object3D;
 import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
+import org.joml.Vector3f;
 import org.joml.Vector3fc;
+import org.jspecify.annotations.Nullable;
 
 import java.util.function.Consumer;
 
@@ -29,23 +31,55 @@ public final class Component {
     
     /**
      * Related Systems: {@link System#velocity(Object3D)}<br>
-     * Supported types: {@link Vector3fc} and {@link Vector}
+     * Supported types: {@link Vector3fc} and {@link Vector}, stored as a {@link Vector3f},
+     * see {@link #VELOCITY_KEY}
      */
     @Kapi
     public static final String VELOCITY = "velocity";
     
+    /**
+     * Related Systems: {@link System#velocity(Object3D)}<br>
+     * The typed key of {@link #VELOCITY}
+     */
+    @Kapi
+    public static final ComponentKey<Vector3f> VELOCITY_KEY =
+        ComponentKey.of(VELOCITY, Vector3f.class, Component::toVector3f);
+        
     /**
      * Related Systems: {@link System#acceleration(Object3D)}<br>
-     * Supported types: {@link Vector3fc} and {@link Vector}
+     * Supported types: {@link Vector3fc} and {@link Vector}, stored as a {@link Vector3f},
+     * see {@link #ACCELERATION_KEY}
      */
     @Kapi
     public static final String ACCELERATION = "acceleration";
     
     /**
-     * Related Systems: {@link System#entityCollision(Object3D, Consumer)}
+     * Related Systems: {@link System#acceleration(Object3D)}<br>
+     * The typed key of {@link #ACCELERATION}
+     */
+    @Kapi
+    public static final ComponentKey<Vector3f> ACCELERATION_KEY =
+        ComponentKey.of(ACCELERATION, Vector3f.class, Component::toVector3f);
+        
+    /**
+     * Related Systems: {@link System#entityCollision(Object3D, Consumer)},
+     * {@link System#objectCollision(Object3D, Consumer)}<br>
      * Supported types: {@link Double}, {@link Vector},
      * {@link Vector3fc} and {@link BoundingBox}
      */
     @Kapi
     public static final String COLLISION_SHAPE = "collision_shape";
+    
+    /**
+     * Does nothing, calling it makes sure the built-in keys are created.
+     */
+    static void load() {
+        // Loading the class creates the keys
+    }
+    
+    private static @Nullable Vector3f toVector3f(Object value) {
+        if (value instanceof Vector3fc vector) return new Vector3f(vector);
+        if (value instanceof Vector vector) return vector.toVector3f();
+        return null;
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import org.jspecify.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * A typed key of a component.<br>
+ * <br>
+ * Every key has a unique index, components are stored in an array per entity,
+ * so getting a component with a key is an array access,
+ * without hashing the name or checking the type of the value.<br>
+ * <br>
+ * Keys are identified by their name, the string API of {@link EcsEntity}
+ * accesses the same component as the key with the same name.
+ * Create keys once and store them in a constant, see {@link Component} for the built-in keys.
+ *
+ * @param <T> the type of the component
+ */
+@Kapi
+public final class ComponentKey<T> {
+    
+    private static final HashMap<String,ComponentKey<?>> KEYS = new HashMap<>();
+    private static int nextIndex;
+    
+    static {
+        // The built-in keys must be typed before the string API creates untyped keys with their names
+        Component.load();
+    }
+    
+    private final String name;
+    private final Class<T> type;
+    private final int index;
+    private final @Nullable Function<Object,@Nullable T> adapter;
+    
+    private ComponentKey(String name, Class<T> type, int index, @Nullable Function<Object,@Nullable T> adapter) {
+        this.name = name;
+        this.type = type;
+        this.index = index;
+        this.adapter = adapter;
+    }
+    
+    /**
+     * Gets the key of a component, creating it if it doesn't exist.
+     *
+     * @param name the name of the component
+     * @param type the type of the component
+     * @param <T>  the type of the component
+     * @return the key of the component
+     * @throws IllegalArgumentException if a key with the same name but a different type exists
+     */
+    @Kapi
+    public static <T> ComponentKey<T> of(String name, Class<T> type) {
+        return of(name, type, null);
+    }
+    
+    /**
+     * Gets the key of a component, creating it if it doesn't exist.<br>
+     * <br>
+     * The adapter converts values set through the string API of {@link EcsEntity}
+     * that are not of the component's type, for example a {@code Vector} to a {@code Vector3f}.
+     * It should return null if the value can't be converted.
+     *
+     * @param name    the name of the component
+     * @param type    the type of the component
+     * @param adapter converts values of other types to the component's type
+     * @param <T>     the type of the component
+     * @return the key of the component
+     * @throws IllegalArgumentException if a key with the same name but a different type exists
+     */
+    @Kapi
+    @SuppressWarnings("unchecked")
+    public static synchronized <T> ComponentKey<T> of(
+        String name, Class<T> type, @Nullable Function<Object,@Nullable T> adapter
+    ) {
+        ComponentKey<?> existing = KEYS.get(name);
+        if (existing != null && existing.type == type) {
+            return (ComponentKey<T>) existing;
+        }
+        if (existing != null && existing.type != Object.class) {
+            throw new IllegalArgumentException("Component " + name + " already exists with type "
+                + existing.type.getName() + ", cannot use type " + type.getName());
+        }
+        // Keys that were only used through the string API are untyped, so they may be given a type
+        int index = existing != null ? existing.index : nextIndex++;
+        ComponentKey<T> key = new ComponentKey<>(name, type, index, adapter);
+        KEYS.put(name, key);
+        return key;
+    }
+    
+    /**
+     * Gets the key of a component by name, used by the string API of {@link EcsEntity}.
+     *
+     * @param name the name of the component
+     * @return the key with the given name, or a new untyped key if there is none
+     */
+    @Kapi
+    public static synchronized ComponentKey<?> named(String name) {
+        ComponentKey<?> key = KEYS.get(name);
+        if (key == null) {
+            key = new ComponentKey<>(name, Object.class, nextIndex++, null);
+            KEYS.put(name, key);
+        }
+        return key;
+    }
+    
+    /**
+     * Gets the key of a component by name without creating it,
+     * used by the string API of {@link EcsEntity} to read and remove components.<br>
+     * <br>
+     * Note: keys are never removed, so only names that are set should create keys,
+     * otherwise checking for arbitrary names would grow every component array
+     *
+     * @param name the name of the component
+     * @return the key with the given name, or null if no component with the name was ever created
+     */
+    @Kapi
+    public static synchronized @Nullable ComponentKey<?> find(String name) {
+        return KEYS.get(name);
+    }
+    
+    /**
+     * @return the name of the component
+     */
+    @Kapi
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * @return the type of the component, {@link Object} if the key is untyped
+     */
+    @Kapi
+    public Class<T> getType() {
+        return type;
+    }
+    
+    /**
+     * @return the unique index of this key, used to store components in arrays
+     */
+    @Kapi
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Converts a value set through the string API to the component's type.
+     *
+     * @param value the value to convert
+     * @return the value, converted if it's not of the component's type
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable T adapt(@Nullable Object value) {
+        if (value == null || type.isInstance(value)) {
+            return (T) value;
+        }
+        T adapted = adapter != null ? adapter.apply(value) : null;
+        if (adapted == null) {
+            throw new IllegalArgumentException("Component " + name + " of type " + type.getName()
+                + " does not support values of type " + value.getClass().getName());
+        }
+        return adapted;
+    }
+    
+    @Override
+    public String toString() {
+        return "ComponentKey{" + name + ", " + type.getSimpleName() + "}";
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The components of a single entity, indexed by {@link ComponentKey#getIndex()}.<br>
+ * Used by {@link EcsEntity} implementations, there is no need to use it directly.
+ */
+public final class ComponentStorage {
+    
+    // Marks a component that is present but set to null, as null marks an absent component
+    private static final Object NULL = new Object();
+    
+    private @Nullable Object[] values;
+    
+    public ComponentStorage() {
+        this.values = new Object[0];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T get(ComponentKey<T> key) {
+        int index = key.getIndex();
+        if (index >= values.length) return null;
+        Object value = values[index];
+        return value == NULL ? null : (T) value;
+    }
+    
+    public <T> void set(ComponentKey<T> key, @Nullable T value) {
+        int index = key.getIndex();
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+        }
+        values[index] = value == null ? NULL : value;
+    }
+    
+    public boolean has(ComponentKey<?> key) {
+        int index = key.getIndex();
+        return index < values.length && values[index] != null;
+    }
+    
+    /**
+     * @return the number of component indices this storage has room for,
+     *     all components with a larger index are absent
+     */
+    public int length() {
+        return values.length;
+    }
+    
+    /**
+     * @param index the index of the component, see {@link ComponentKey#getIndex()}
+     * @return true if the component is present, false otherwise
+     */
+    public boolean has(int index) {
+        return index < values.length && values[index] != null;
+    }
+    
+    /**
+     * Removes all components, keeping the allocated memory for reuse.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+    
+    public void remove(ComponentKey<?> key) {
+        int index = key.getIndex();
+        if (index < values.length) {
+            values[index] = null;
+        }
+    }
+    
+    /**
+     * Sets a component through the string API,
+     * values that are not of the component's type are converted.
+     *
+     * @throws IllegalArgumentException if the value can't be converted to the component's type
+     */
+    public void set(String name, @Nullable Object value) {
+        setAdapted(ComponentKey.named(name), value);
+    }
+    
+    /**
+     * Sets a component, converting the value to the component's type if needed,
+     * see {@link #set(String, Object)}.
+     *
+     * @throws IllegalArgumentException if the value can't be converted to the component's type
+     */
+    public <T> void setAdapted(ComponentKey<T> key, @Nullable Object value) {
+        set(key, key.adapt(value));
+    }
+    
+    public @Nullable Object get(String name) {
+        // A name without a key was never set, so no storage has it
+        ComponentKey<?> key = ComponentKey.find(name);
+        return key == null ? null : get(key);
+    }
+    
+    public boolean has(String name) {
+        ComponentKey<?> key = ComponentKey.find(name);
+        return key != null && has(key);
+    }
+    
+    public void remove(String name) {
+        ComponentKey<?> key = ComponentKey.find(name);
+        if (key != null) remove(key);
+    }
+}
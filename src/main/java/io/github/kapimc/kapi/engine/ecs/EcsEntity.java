@@ -15,11 +15,27 @@ import java.util.function.Consumer;
 
 /**
  * This interface represents an entity in an ECS system.<br>
- * Implementing this interface yourself is not recommended nor supported.
+ * Implementing this interface yourself is not recommended nor supported.<br>
+ * <br>
+ * Components can be accessed with a typed {@link ComponentKey}, or by name.
+ * Both access the same component, the string methods are kept for compatibility,
+ * prefer keys in systems that run every tick.
  */
 @Kapi
 public interface EcsEntity {
     
+    @Kapi
+    <T> void set(ComponentKey<T> key, @Nullable T value);
+    
+    @Kapi
+    <T> @Nullable T get(ComponentKey<T> key);
+    
+    @Kapi
+    boolean has(ComponentKey<?> key);
+    
+    @Kapi
+    void remove(ComponentKey<?> key);
+    
     @Kapi
     void set(String key, @Nullable Object value);
     
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A collection of lightweight entities, made of {@link ColumnComponent}s.<br>
+ * <br>
+ * Entities with the same set of components are stored together in an {@link Archetype},
+ * each component in a packed {@code float[]} column.
+ * A {@link BulkSystem} runs once per archetype and loops over the columns directly,
+ * so running a system over thousands of entities has no per entity overhead.<br>
+ * <br>
+ * Entities are plain {@code int} ids, ids of despawned entities are reused.<br>
+ * Systems are not scheduled automatically, call {@link #run(BulkSystem, ColumnComponent...)}
+ * when they should run, for example from a tick task.<br>
+ * <br>
+ * Note: not thread-safe
+ */
+@Kapi
+public final class EcsWorld {
+    
+    private final List<Archetype> archetypes;
+    private final HashMap<Long,Archetype> archetypesByMask;
+    private Archetype[] entityArchetypes;
+    private int[] entityRows;
+    private int[] freeIds;
+    private int freeCount;
+    private int nextId;
+    private int entityCount;
+    
+    /**
+     * Creates an empty world.
+     */
+    @Kapi
+    public EcsWorld() {
+        this.archetypes = new ArrayList<>();
+        this.archetypesByMask = new HashMap<>();
+        this.entityArchetypes = new Archetype[16];
+        this.entityRows = new int[16];
+        this.freeIds = new int[16];
+    }
+    
+    /**
+     * Spawns an entity, all of its values start at 0.
+     *
+     * @param components the components of the entity
+     * @return the id of the entity
+     */
+    @Kapi
+    public int spawn(ColumnComponent... components) {
+        int entity;
+        if (freeCount > 0) {
+            entity = freeIds[--freeCount];
+        } else {
+            entity = nextId++;
+            if (entity == entityArchetypes.length) {
+                entityArchetypes = Arrays.copyOf(entityArchetypes, entity * 2);
+                entityRows = Arrays.copyOf(entityRows, entity * 2);
+            }
+        }
+        Archetype archetype = getArchetype(ColumnComponent.mask(components));
+        entityArchetypes[entity] = archetype;
+        entityRows[entity] = archetype.add(entity);
+        entityCount++;
+        return entity;
+    }
+    
+    /**
+     * Despawns an entity, its id may be reused by entities spawned later.
+     *
+     * @param entity the id of the entity
+     * @throws IllegalArgumentException if the entity doesn't exist
+     */
+    @Kapi
+    public void despawn(int entity) {
+        Archetype archetype = getEntityArchetype(entity);
+        removeRow(archetype, entityRows[entity]);
+        entityArchetypes[entity] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = entity;
+        entityCount--;
+    }
+    
+    /**
+     * @param entity the id of the entity
+     * @return true if the entity exists, false otherwise
+     */
+    @Kapi
+    public boolean isAlive(int entity) {
+        return entity >= 0 && entity < nextId && entityArchetypes[entity] != null;
+    }
+    
+    /**
+     * @return the number of entities in this world
+     */
+    @Kapi
+    public int getEntityCount() {
+        return entityCount;
+    }
+    
+    /**
+     * @param entity    the id of the entity
+     * @param component the component
+     * @return true if the entity has the component, false otherwise
+     * @throws IllegalArgumentException if the entity doesn't exist
+     */
+    @Kapi
+    public boolean has(int entity, ColumnComponent component) {
+        return getEntityArchetype(entity).has(component);
+    }
+    
+    /**
+     * Adds a component to an entity, its values start at 0.<br>
+     * Does nothing if the entity already has the component.<br>
+     * <br>
+     * Note: this moves the entity to another archetype,
+     * prefer spawning entities with all of their components
+     *
+     * @param entity    the id of the entity
+     * @param component the component to add
+     * @throws IllegalArgumentException if the entity doesn't exist
+     */
+    @Kapi
+    public void add(int entity, ColumnComponent component) {
+        Archetype archetype = getEntityArchetype(entity);
+        if (archetype.has(component)) return;
+        move(entity, archetype, getArchetype(archetype.getMask() | component.mask()));
+    }
+    
+    /**
+     * Removes a component from an entity.<br>
+     * Does nothing if the entity doesn't have the component.<br>
+     * <br>
+     * Note: this moves the entity to another archetype
+     *
+     * @param entity    the id of the entity
+     * @param component the component to remove
+     * @throws IllegalArgumentException if the entity doesn't exist
+     */
+    @Kapi
+    public void remove(int entity, ColumnComponent component) {
+        Archetype archetype = getEntityArchetype(entity);
+        if (!archetype.has(component)) return;
+        move(entity, archetype, getArchetype(archetype.getMask() & ~component.mask()));
+    }
+    
+    /**
+     * Gets a single value of a component of an entity.
+     *
+     * @param entity    the id of the entity
+     * @param component the component
+     * @param lane      the index of the value within the component, for example 1 for the y of a position
+     * @return the value
+     * @throws IllegalArgumentException  if the entity doesn't exist or doesn't have the component
+     * @throws IndexOutOfBoundsException if the lane is not within the component's width
+     */
+    @Kapi
+    public float getValue(int entity, ColumnComponent component, int lane) {
+        checkLane(component, lane);
+        Archetype archetype = getEntityArchetype(entity);
+        return archetype.getColumn(component)[entityRows[entity] * component.getWidth() + lane];
+    }
+    
+    /**
+     * Sets a single value of a component of an entity.
+     *
+     * @param entity    the id of the entity
+     * @param component the component
+     * @param lane      the index of the value within the component, for example 1 for the y of a position
+     * @param value     the new value
+     * @throws IllegalArgumentException  if the entity doesn't exist or doesn't have the component
+     * @throws IndexOutOfBoundsException if the lane is not within the component's width
+     */
+    @Kapi
+    public void setValue(int entity, ColumnComponent component, int lane, float value) {
+        checkLane(component, lane);
+        Archetype archetype = getEntityArchetype(entity);
+        archetype.getColumn(component)[entityRows[entity] * component.getWidth() + lane] = value;
+    }
+    
+    /**
+     * Sets all values of a component of an entity.
+     *
+     * @param entity    the id of the entity
+     * @param component the component
+     * @param values    the new values, exactly as many as the component's width
+     * @throws IllegalArgumentException if the entity doesn't exist, doesn't have the component,
+     *                                  or the amount of values doesn't match the component's width
+     */
+    @Kapi
+    public void set(int entity, ColumnComponent component, float... values) {
+        if (values.length != component.getWidth()) {
+            throw new IllegalArgumentException("Component " + component.getName() + " has a width of "
+                + component.getWidth() + ", got " + values.length + " values");
+        }
+        Archetype archetype = getEntityArchetype(entity);
+        java.lang.System.arraycopy(
+            values, 0,
+            archetype.getColumn(component), entityRows[entity] * component.getWidth(),
+            values.length
+        );
+    }
+    
+    /**
+     * Runs a system once for every non-empty archetype that has all the given components.
+     *
+     * @param system     the system to run
+     * @param components the components the system requires
+     */
+    @Kapi
+    public void run(BulkSystem system, ColumnComponent... components) {
+        long mask = ColumnComponent.mask(components);
+        // Indexed loop, the system may spawn entities with new archetypes
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            if ((archetype.getMask() & mask) != mask || archetype.size() == 0) continue;
+            system.run(archetype);
+        }
+    }
+    
+    /**
+     * Creates a system that adds a component to another, component-wise.<br>
+     * For example, {@code integrate(POSITION, VELOCITY)} moves every entity by its velocity,
+     * and {@code integrate(VELOCITY, ACCELERATION)} accelerates it.
+     *
+     * @param target the component to modify
+     * @param delta  the component to add to the target
+     * @return a system that requires both components, run it with {@code run(system, target, delta)}
+     * @throws IllegalArgumentException if the components don't have the same width
+     */
+    @Kapi
+    public static BulkSystem integrate(ColumnComponent target, ColumnComponent delta) {
+        if (target.getWidth() != delta.getWidth()) {
+            throw new IllegalArgumentException("Cannot integrate " + delta.getName() + " into "
+                + target.getName() + ", they have different widths");
+        }
+        return archetype -> {
+            float[] targetColumn = archetype.getColumn(target);
+            float[] deltaColumn = archetype.getColumn(delta);
+            for (int i = 0, end = archetype.size() * target.getWidth(); i < end; i++) {
+                targetColumn[i] += deltaColumn[i];
+            }
+        };
+    }
+    
+    private Archetype getEntityArchetype(int entity) {
+        if (!isAlive(entity)) {
+            throw new IllegalArgumentException("Entity " + entity + " doesn't exist");
+        }
+        return entityArchetypes[entity];
+    }
+    
+    private Archetype getArchetype(long mask) {
+        Archetype archetype = archetypesByMask.get(mask);
+        if (archetype != null) return archetype;
+        
+        ColumnComponent[] components = new ColumnComponent[Long.bitCount(mask)];
+        int count = 0;
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            components[count++] = ColumnComponent.byIndex(Long.numberOfTrailingZeros(remaining));
+        }
+        archetype = new Archetype(mask, components);
+        archetypes.add(archetype);
+        archetypesByMask.put(mask, archetype);
+        return archetype;
+    }
+    
+    private void move(int entity, Archetype from, Archetype to) {
+        int row = entityRows[entity];
+        int newRow = to.add(entity);
+        from.copyRow(row, to, newRow);
+        removeRow(from, row);
+        entityArchetypes[entity] = to;
+        entityRows[entity] = newRow;
+    }
+    
+    private void removeRow(Archetype archetype, int row) {
+        int moved = archetype.remove(row);
+        if (moved != -1) {
+            entityRows[moved] = row;
+        }
+    }
+    
+    private static void checkLane(ColumnComponent component, int lane) {
+        if (lane < 0 || lane >= component.getWidth()) {
+            throw new IndexOutOfBoundsException("Lane " + lane + " out of bounds for width " + component.getWidth());
+        }
+    }
+}
@@ -8,18 +8,19 @@
 package io.github.kapimc.kapi.engine.ecs;
 
 import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.engine.Engine;
 import io.github.kapimc.kapi.engine.Object3D;
 import io.github.kapimc.kapi.engine.Template3D;
 import io.github.kapimc.kapi.engine.ecs.events.EntityCollisionEvent;
-import org.bukkit.Location;
-import org.bukkit.World;
+import io.github.kapimc.kapi.engine.ecs.events.ObjectCollisionEvent;
 import org.bukkit.entity.Entity;
 import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 import org.joml.Vector3f;
-import org.joml.Vector3fc;
 
-import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -46,6 +47,8 @@ import java.util.function.Consumer;
 @Kapi
 public final class System {
     
+    private static final ArrayDeque<ArrayList<Entity>> ENTITY_LISTS = new ArrayDeque<>();
+    
     private System() {
         throw new AssertionError("System should not be instantiated");
     }
@@ -56,20 +59,17 @@ public final class System {
      * <ul>
      *     <li>{@value Component#VELOCITY}</li>
      * </ul>
-     * If the component is not present or is not of the correct type,
+     * If the component is not present or is null,
      * this system will silently do nothing.
+     * This system is pure, it can run in parallel, see {@link SystemTrigger#parallel()}.
      *
      * @param instance The object to apply the system to.
      */
     @Kapi
     public static void velocity(Object3D instance) {
-        if (!instance.has(Component.VELOCITY)) return;
-        Object object = instance.get(Component.VELOCITY);
-        if (object instanceof Vector3fc velocity) {
-            instance.getMutableTransform().translate(velocity);
-        } else if (object instanceof Vector velocity) {
-            instance.getMutableTransform().translate(velocity.toVector3f());
-        }
+        Vector3f velocity = instance.get(Component.VELOCITY_KEY);
+        if (velocity == null) return;
+        instance.getMutableTransform().translate(velocity);
     }
     
     /**
@@ -80,33 +80,19 @@ public final class System {
      *     <li>{@value Component#ACCELERATION}</li>
      * </ul>
      * If either the velocity or acceleration component is not present
-     * or are not of the correct type, this system will silently do nothing.
+     * or is null, this system will silently do nothing.
+     * This system is pure, it can run in parallel, see {@link SystemTrigger#parallel()}.
      *
      * @param instance The object to apply the system to.
      */
     @Kapi
     public static void acceleration(Object3D instance) {
-        if (!instance.has(Component.ACCELERATION)) return;
-        if (!instance.has(Component.VELOCITY)) return;
-        
-        Object object = instance.get(Component.ACCELERATION);
-        Vector3fc acceleration;
-        Vector3f velocity;
-        
-        if (object instanceof Vector3fc acc) {
-            acceleration = acc;
-        } else if (object instanceof Vector acc) {
-            acceleration = acc.toVector3f();
-        } else return;
-        
-        object = instance.get(Component.VELOCITY);
-        if (object instanceof Vector3fc vel) {
-            velocity = new Vector3f(vel);
-        } else if (object instanceof Vector vel) {
-            velocity = vel.toVector3f();
-        } else return;
+        Vector3f acceleration = instance.get(Component.ACCELERATION_KEY);
+        Vector3f velocity = instance.get(Component.VELOCITY_KEY);
+        if (acceleration == null || velocity == null) return;
         
-        instance.set(Component.VELOCITY, velocity.add(acceleration));
+        // The velocity may be shared with other objects, like a template default, so don't modify it
+        instance.set(Component.VELOCITY_KEY, new Vector3f(velocity).add(acceleration));
     }
     
     /**
@@ -116,8 +102,10 @@ public final class System {
      *     <li>{@value Component#COLLISION_SHAPE}</li>
      * </ul>
      * If collision is detected, an EntityCollisionEvent will be triggered
-     * with all the entities that were collided with.<br>
-     * Note: when using a bounding box, it'll be shifted by the center + offset (if any)
+     * with all the entities that were collided with,
+     * if nothing was collided with, the callback is not called.<br>
+     * Note: when using a bounding box, it'll be shifted by the center + offset (if any)<br>
+     * Note: the event's lists are reused once the callback returns, copy them to keep them
      *
      * @param instance     The object to apply the system to.
      * @param callback     The callback function to call when a collision is detected.
@@ -128,27 +116,45 @@ public final class System {
     public static void entityCollision(
         Object3D instance, Consumer<EntityCollisionEvent> callback, Vector centerOffset
     ) {
-        if (!instance.has(Component.COLLISION_SHAPE)) return;
-        Object collisionShape = instance.get(Component.COLLISION_SHAPE);
+        BoundingBox box = instance.getCollisionBox();
+        if (box == null) return;
+        box.shift(centerOffset);
         
-        World world = instance.getWorld();
-        Location location = instance.getWorldLocation().add(centerOffset);
-        Collection<Entity> entities;
-        
-        if (collisionShape instanceof BoundingBox boundingBox) {
-            boundingBox.shift(location);
-            entities = world.getNearbyEntities(boundingBox);
-        } else if (collisionShape instanceof Double radius) {
-            entities = world.getNearbyEntities(location, radius, radius, radius);
-        } else if (collisionShape instanceof Vector3fc radius) {
-            entities = world.getNearbyEntities(location, radius.x(), radius.y(), radius.z());
-        } else if (collisionShape instanceof Vector radius) {
-            entities =
-                world.getNearbyEntities(location, radius.getX(), radius.getY(), radius.getZ());
-        } else return;
-        
-        EntityCollisionEvent event = new EntityCollisionEvent(instance, entities);
-        callback.accept(event);
+        // Lists are pooled instead of shared, the callback may check collisions of other objects
+        ArrayList<Entity> entities = ENTITY_LISTS.isEmpty() ? new ArrayList<>() : ENTITY_LISTS.pop();
+        try {
+            // All colliders share a spatial hash of the world's entities, instead of each scanning the chunks
+            Engine.getInstance().getNearbyEntities(instance.getWorld(), box, entities);
+            if (entities.isEmpty()) return;
+            callback.accept(new EntityCollisionEvent(instance, entities));
+        } finally {
+            entities.clear();
+            ENTITY_LISTS.push(entities);
+        }
+    }
+    
+    /**
+     * Checks if the object collides with other objects.<br>
+     * Components:
+     * <ul>
+     *     <li>{@value Component#COLLISION_SHAPE}</li>
+     * </ul>
+     * Both objects need a collision shape,
+     * if collision is detected, the callback is called with all the objects that were collided with.<br>
+     * <br>
+     * All collisions are found at once by the engine,
+     * so this system can be used by thousands of objects,
+     * see {@link Engine#getCollidingObjects(Object3D)}.<br>
+     * Note: if both objects use this system, both callbacks are called
+     *
+     * @param instance The object to apply the system to.
+     * @param callback The callback function to call when a collision is detected.
+     */
+    @Kapi
+    public static void objectCollision(Object3D instance, Consumer<ObjectCollisionEvent> callback) {
+        List<Object3D> objects = Engine.getInstance().getCollidingObjects(instance);
+        if (objects.isEmpty()) return;
+        callback.accept(new ObjectCollisionEvent(instance, objects));
     }
     
     /**
@@ -10,12 +10,20 @@ package io.github.kapimc.kapi.engine.ecs;
 import io.github.kapimc.kapi.annotations.Kapi;
 import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
 /**
  * Represents when a system should be executed.
  */
 @Kapi
 public final class SystemTrigger {
     
+    // Declared before the built-in triggers, which intern their events
+    private static final HashMap<String,Integer> EVENT_IDS = new HashMap<>();
+    private static final List<String> EVENT_NAMES = new ArrayList<>();
+    
     // Built-in event names
     @Kapi
     public static final String SPAWN_EVENT = "spawn";
@@ -42,18 +50,34 @@ public final class SystemTrigger {
     
     private final int delay;
     private final int period;
+    private final boolean parallel;
     private final @Nullable String event;
+    private final int eventId;
     
     private SystemTrigger(int delay, int period) {
+        this(delay, period, false);
+    }
+    
+    private SystemTrigger(int delay, int period, boolean parallel) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        if (period < 0) {
+            throw new IllegalArgumentException("Period must not be negative");
+        }
         this.event = null;
         this.delay = delay;
         this.period = period;
+        this.parallel = parallel;
+        this.eventId = -1;
     }
     
     private SystemTrigger(String event) {
         this.delay = 0;
         this.period = 0;
+        this.parallel = false;
         this.event = event;
+        this.eventId = eventId(event);
     }
     
     /**
@@ -61,6 +85,7 @@ public final class SystemTrigger {
      *
      * @param period Every how many ticks the system should be executed
      * @return A new trigger
+     * @throws IllegalArgumentException If the period is negative
      */
     @Kapi
     public static SystemTrigger interval(int period) {
@@ -72,6 +97,7 @@ public final class SystemTrigger {
      *
      * @param delay The delay in ticks
      * @return A new trigger
+     * @throws IllegalArgumentException If the delay is negative
      */
     @Kapi
     public static SystemTrigger delay(int delay) {
@@ -86,6 +112,7 @@ public final class SystemTrigger {
      * @param delay  The delay in ticks
      * @param period Every how many ticks the system should be executed
      * @return A new trigger
+     * @throws IllegalArgumentException If the delay or period is negative
      */
     @Kapi
     public static SystemTrigger delayedInterval(int delay, int period) {
@@ -104,6 +131,101 @@ public final class SystemTrigger {
         return new SystemTrigger(event);
     }
     
+    /**
+     * Interns an event name to a small id, the same name always gets the same id.<br>
+     * <br>
+     * Objects store their event systems in an array indexed by the event id,
+     * triggering an event by id, see {@link io.github.kapimc.kapi.engine.Object3D#triggerEvent(int)},
+     * skips looking up the name.
+     * Store the id in a constant to trigger custom events as fast as built-in ones.
+     *
+     * @param event The event's name
+     * @return The id of the event
+     */
+    @Kapi
+    public static synchronized int eventId(String event) {
+        Integer id = EVENT_IDS.get(event);
+        if (id == null) {
+            id = EVENT_NAMES.size();
+            EVENT_IDS.put(event, id);
+            EVENT_NAMES.add(event);
+        }
+        return id;
+    }
+    
+    /**
+     * Gets the id of an event without interning it, see {@link #eventId(String)}.<br>
+     * <br>
+     * Note: ids are never removed, so only names that are listened for should be interned,
+     * an event no system listens for has no listeners to call
+     *
+     * @param event The event's name
+     * @return The id of the event, or -1 if the event was never interned
+     */
+    @Kapi
+    public static synchronized int findEventId(String event) {
+        Integer id = EVENT_IDS.get(event);
+        return id == null ? -1 : id;
+    }
+    
+    /**
+     * Gets the name of an interned event.
+     *
+     * @param eventId The id of the event, see {@link #eventId(String)}
+     * @return The event's name
+     * @throws IllegalArgumentException If no event has the id
+     */
+    @Kapi
+    public static synchronized String eventName(int eventId) {
+        if (eventId < 0 || eventId >= EVENT_NAMES.size()) {
+            throw new IllegalArgumentException("No event has the id " + eventId);
+        }
+        return EVENT_NAMES.get(eventId);
+    }
+    
+    /**
+     * Creates a copy of this trigger for pure systems, which may run on worker threads.<br>
+     * <br>
+     * When many objects share a pure system, the engine splits them into chunks
+     * and runs the chunks in parallel, the tick continues once all of them are done.
+     * Rendering and anything else that touches Bukkit still happens afterward on the main thread.<br>
+     * <br>
+     * A system is pure if it only reads and modifies the object it's given, specifically:
+     * <ul>
+     *     <li>Its transform, see {@link io.github.kapimc.kapi.engine.Object3D#getMutableTransform()}</li>
+     *     <li>Components the object already has, setting a component the object doesn't have is not allowed</li>
+     * </ul>
+     * It must not call Bukkit, spawn or despawn objects, trigger events
+     * or access other objects, including the parent and children.<br>
+     * {@link System#velocity(io.github.kapimc.kapi.engine.Object3D)} and
+     * {@link System#acceleration(io.github.kapimc.kapi.engine.Object3D)} are pure.<br>
+     * <br>
+     * Example:
+     * <pre>{@code
+     *     template.addSystem(SystemTrigger.TICK.parallel(), System::velocity);
+     * }</pre>
+     *
+     * @return A new trigger with the same delay and period
+     * @throws IllegalStateException If the trigger is an event trigger
+     */
+    @Kapi
+    public SystemTrigger parallel() {
+        if (event != null) {
+            throw new IllegalStateException("Event triggers cannot be parallel");
+        }
+        return new SystemTrigger(delay, period, true);
+    }
+    
+    /**
+     * Checks if this trigger is for pure systems, see {@link #parallel()}.
+     *
+     * @return True if systems with this trigger may run on worker threads, false otherwise
+     */
+    @Kapi
+    public boolean isParallel() {
+        return parallel;
+    }
+    
     /**
      * Gets the delay of this trigger.
      *
@@ -146,6 +268,20 @@ public final class SystemTrigger {
         return event;
     }
     
+    /**
+     * Gets the interned id of the event of this trigger, see {@link #eventId(String)}.
+     *
+     * @return The event's id
+     * @throws IllegalStateException If the trigger is not an event trigger
+     */
+    @Kapi
+    public int getEventId() {
+        if (event == null) {
+            throw new IllegalStateException("This trigger is not an event trigger");
+        }
+        return eventId;
+    }
+    
     /**
      * Checks if this trigger is an event trigger.
      *
@@ -13,6 +13,7 @@ import io.github.kapimc.kapi.engine.ecs.System;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -21,31 +22,31 @@ import java.util.function.Consumer;
 
 /**
  * Stores information about an entity collision event.<br>
- * See {@link System#entityCollision(Object3D, Consumer)} for more information.
+ * See {@link System#entityCollision(Object3D, Consumer)} for more information.<br>
+ * <br>
+ * The living entities and players are filtered lazily,
+ * only when {@link #getLivingEntities()} or {@link #getPlayers()} is first called.
  */
 @Kapi
 public final class EntityCollisionEvent {
     private final Object3D collider;
     private final List<Entity> collidedEntities;
-    private final List<LivingEntity> collidedLivingEntities;
-    private final List<Player> collidedPlayers;
+    private @Nullable List<LivingEntity> collidedLivingEntities;
+    private @Nullable List<Player> collidedPlayers;
     
+    /**
+     * Note: if the collided entities are a list, it's used as is instead of being copied
+     *
+     * @param collider         The collider
+     * @param collidedEntities The entities that were collided with
+     */
     public EntityCollisionEvent(
         final Object3D collider, final Collection<Entity> collidedEntities
     ) {
         this.collider = collider;
-        this.collidedEntities = new ArrayList<>();
-        this.collidedLivingEntities = new ArrayList<>();
-        this.collidedPlayers = new ArrayList<>();
-        for (Entity entity : collidedEntities) {
-            collidedEntities.add(entity);
-            if (entity instanceof LivingEntity livingEntity) {
-                collidedLivingEntities.add(livingEntity);
-                if (livingEntity instanceof Player player) {
-                    collidedPlayers.add(player);
-                }
-            }
-        }
+        this.collidedEntities = collidedEntities instanceof List<Entity> list
+            ? list
+            : new ArrayList<>(collidedEntities);
     }
     
     /**
@@ -69,6 +70,14 @@ public final class EntityCollisionEvent {
      */
     @Kapi
     public List<LivingEntity> getLivingEntities() {
+        if (collidedLivingEntities == null) {
+            collidedLivingEntities = new ArrayList<>();
+            for (Entity entity : collidedEntities) {
+                if (entity instanceof LivingEntity livingEntity) {
+                    collidedLivingEntities.add(livingEntity);
+                }
+            }
+        }
         return collidedLivingEntities;
     }
     
@@ -77,6 +86,14 @@ public final class EntityCollisionEvent {
      */
     @Kapi
     public List<Player> getPlayers() {
+        if (collidedPlayers == null) {
+            collidedPlayers = new ArrayList<>();
+            for (Entity entity : collidedEntities) {
+                if (entity instanceof Player player) {
+                    collidedPlayers.add(player);
+                }
+            }
+        }
         return collidedPlayers;
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs.events;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+import io.github.kapimc.kapi.engine.Object3D;
+import io.github.kapimc.kapi.engine.ecs.System;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stores information about a collision between objects.<br>
+ * See {@link System#objectCollision(Object3D, Consumer)} for more information.
+ */
+@Kapi
+public final class ObjectCollisionEvent {
+    private final Object3D collider;
+    private final List<Object3D> collidedObjects;
+    
+    public ObjectCollisionEvent(final Object3D collider, final List<Object3D> collidedObjects) {
+        this.collider = collider;
+        this.collidedObjects = collidedObjects;
+    }
+    
+    /**
+     * @return The collider that was collided with.
+     */
+    @Kapi
+    public Object3D getCollider() {
+        return collider;
+    }
+    
+    /**
+     * @return The objects that were collided with the collider.
+     */
+    @Kapi
+    public List<Object3D> getObjects() {
+        return collidedObjects;
+    }
+}
@@ -26,6 +26,7 @@ import org.jspecify.annotations.Nullable;
 public final class BlockDisplayRender extends BlockDisplayData implements Renderable {
     
     private @Nullable BlockDisplay entity;
+    private final DisplayPosition position = new DisplayPosition();
     
     /**
      * Creates a new block display render.
@@ -49,6 +50,7 @@ public final class BlockDisplayRender extends BlockDisplayData implements Render
             throw new IllegalStateException("Cannot spawn a block display that has already been spawned");
         }
         entity = world.spawn(point.toLocation(world), BlockDisplay.class);
+        position.reset(world, point);
         entity.setTransformation(getTransformation());
         entity.setInterpolationDuration(getInterpolationDuration());
         entity.setViewRange(getViewRange());
@@ -66,11 +68,20 @@ public final class BlockDisplayRender extends BlockDisplayData implements Render
     @Kapi
     @Override
     public void render(World world, Vector point) {
-        Log.kapi("Rendering block display in world " + world.getName() + " at " + point);
+        render(world, point.getX(), point.getY(), point.getZ());
+    }
+    
+    @Kapi
+    @Override
+    public void render(World world, double x, double y, double z) {
+        // Called for every block display every tick, so don't even create a lambda unless it's logged
+        if (Log.isEnabled(Log.Level.KAPI)) {
+            Log.kapi("Rendering block display in world " + world.getName() + " at " + x + ", " + y + ", " + z);
+        }
         if (entity == null) {
             throw new IllegalStateException("Cannot render a block display that has not been spawned");
         }
-        entity.teleport(point.toLocation(world));
+        position.moveTo(entity, this, world, x, y, z);
     }
     
     @Kapi
@@ -80,6 +91,8 @@ public final class BlockDisplayRender extends BlockDisplayData implements Render
             throw new IllegalStateException("Cannot despawn a block display that has not been spawned");
         }
         entity.remove();
+        // Can be spawned again, by a respawn or by reusing a pooled instance
+        entity = null;
     }
     
     @Kapi
@@ -88,6 +101,43 @@ public final class BlockDisplayRender extends BlockDisplayData implements Render
         return entity != null;
     }
     
+    @Kapi
+    @Override
+    public double getRenderDistance() {
+        return getViewDistance();
+    }
+    
+    /**
+     * Sets how display movement is sent to players.<br>
+     * <br>
+     * With 0 (the default), the display is teleported every time it moves.<br>
+     * Otherwise, the display stays in place and its movement is sent as a translation
+     * of its transformation at most once every {@code ticks} ticks,
+     * which the client interpolates over the same amount of ticks.
+     * This sends far fewer packets for moving displays, at the cost of the display
+     * lagging behind its object by up to {@code ticks} ticks.<br>
+     * <br>
+     * Note: while moving, this overrides the interpolation duration and delay of the entity,
+     * and only applies to displays with a {@link Display.Billboard#FIXED} billboard,
+     * other billboards rotate the translation, so they are always teleported
+     *
+     * @param ticks the amount of ticks to interpolate each movement over, 0 to teleport
+     * @throws IllegalArgumentException if ticks is negative
+     */
+    @Kapi
+    public void setMovementInterpolation(int ticks) {
+        position.setInterpolationTicks(ticks);
+    }
+    
+    /**
+     * @return the amount of ticks each movement is interpolated over, 0 if the display is teleported
+     * @see #setMovementInterpolation(int)
+     */
+    @Kapi
+    public int getMovementInterpolation() {
+        return position.getInterpolationTicks();
+    }
+    
     @Kapi
     @Override
     public void setBlock(BlockData block) {
@@ -99,7 +149,7 @@ public final class BlockDisplayRender extends BlockDisplayData implements Render
     @Override
     public void setTransformation(Transformation transformation) {
         super.setTransformation(transformation);
-        if (entity != null) entity.setTransformation(transformation);
+        if (entity != null) entity.setTransformation(position.offset(transformation));
     }
     
     @Kapi
@@ -175,6 +225,8 @@ public final class BlockDisplayRender extends BlockDisplayData implements Render
     @Kapi
     @Override
     public BlockDisplayRender clone() {
-        return new BlockDisplayRender(super.clone());
+        BlockDisplayRender clone = new BlockDisplayRender(super.clone());
+        clone.setMovementInterpolation(getMovementInterpolation());
+        return clone;
     }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.renderable;
+
+import io.github.kapimc.kapi.data.DisplayData;
+import io.github.kapimc.kapi.engine.Engine;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.util.Transformation;
+import org.bukkit.util.Vector;
+import org.joml.Vector3f;
+
+/**
+ * Moves a display entity to the position it's rendered at.<br>
+ * <br>
+ * By default, the entity is teleported, unless it didn't move since the last teleport.<br>
+ * With movement interpolation, the entity stays in place and the movement is sent as
+ * a translation of its transformation, once every few ticks.
+ * The client interpolates the transformation, so the movement still looks smooth.<br>
+ * <br>
+ * Note: only the position is tracked, the rotation of a display
+ * comes from its transformation, which is never teleported
+ */
+final class DisplayPosition {
+    
+    // Smaller than the precision of the relative move packet (1/4096 of a block)
+    private static final double EPSILON = 1.0E-4;
+    // Players only see an entity if they are close to its actual location,
+    // so a translation can't move the display too far away from it
+    private static final double MAX_OFFSET_SQUARED = 8 * 8;
+    
+    private final Location location = new Location(null, 0, 0, 0);
+    private int interpolationTicks;
+    private long lastUpdateTick;
+    private boolean updated;
+    private float offsetX;
+    private float offsetY;
+    private float offsetZ;
+    
+    /**
+     * Sets the position of a newly spawned entity, without counting a teleport.
+     */
+    void reset(World world, Vector point) {
+        location.setWorld(world);
+        location.setX(point.getX());
+        location.setY(point.getY());
+        location.setZ(point.getZ());
+        offsetX = 0;
+        offsetY = 0;
+        offsetZ = 0;
+        // No update yet, so the first movement is never throttled
+        updated = false;
+    }
+    
+    /**
+     * Moves the entity to the given position.
+     *
+     * @param entity the display entity to move
+     * @param data   the data of the display, for its transformation and billboard
+     * @param world  the world to move to
+     * @param x      the x coordinate to move to
+     * @param y      the y coordinate to move to
+     * @param z      the z coordinate to move to
+     */
+    void moveTo(Display entity, DisplayData data, World world, double x, double y, double z) {
+        // Billboards rotate the translation with the camera, so it can't be used for movement
+        if (interpolationTicks == 0 || data.getBillboard() != Display.Billboard.FIXED) {
+            teleport(entity, data, world, x, y, z);
+            return;
+        }
+        
+        long tick = Engine.getInstance().getCurrentTick();
+        if (updated && tick - lastUpdateTick < interpolationTicks) {
+            // The previous movement is still being interpolated, this is throttling, not an avoided teleport
+            return;
+        }
+        
+        double dx = x - location.getX();
+        double dy = y - location.getY();
+        double dz = z - location.getZ();
+        if (location.getWorld() != world || dx * dx + dy * dy + dz * dz > MAX_OFFSET_SQUARED) {
+            teleport(entity, data, world, x, y, z);
+            return;
+        }
+        if (Math.abs(dx - offsetX) < EPSILON
+            && Math.abs(dy - offsetY) < EPSILON
+            && Math.abs(dz - offsetZ) < EPSILON) {
+            RenderCounters.teleportSkipped();
+            return;
+        }
+        
+        offsetX = (float) dx;
+        offsetY = (float) dy;
+        offsetZ = (float) dz;
+        lastUpdateTick = tick;
+        updated = true;
+        entity.setInterpolationDelay(0);
+        entity.setInterpolationDuration(interpolationTicks);
+        entity.setTransformation(offset(data.getTransformation()));
+        RenderCounters.interpolatedMove();
+    }
+    
+    private void teleport(Display entity, DisplayData data, World world, double x, double y, double z) {
+        boolean hasOffset = offsetX != 0 || offsetY != 0 || offsetZ != 0;
+        if (!hasOffset
+            && location.getWorld() == world
+            && Math.abs(location.getX() - x) < EPSILON
+            && Math.abs(location.getY() - y) < EPSILON
+            && Math.abs(location.getZ() - z) < EPSILON) {
+            RenderCounters.teleportSkipped();
+            return;
+        }
+        location.setWorld(world);
+        location.setX(x);
+        location.setY(y);
+        location.setZ(z);
+        // Teleporting copies the location, so it's safe to reuse it
+        entity.teleport(location);
+        RenderCounters.teleported();
+        
+        if (hasOffset) {
+            // The entity is now at the rendered position, so the translation must be removed instantly
+            offsetX = 0;
+            offsetY = 0;
+            offsetZ = 0;
+            entity.setInterpolationDuration(0);
+            entity.setTransformation(data.getTransformation());
+        }
+        lastUpdateTick = Engine.getInstance().getCurrentTick();
+        updated = true;
+    }
+    
+    /**
+     * @param transformation the transformation of the display
+     * @return the transformation, translated by the movement sent to the client so far
+     */
+    Transformation offset(Transformation transformation) {
+        if (offsetX == 0 && offsetY == 0 && offsetZ == 0) return transformation;
+        Vector3f translation = new Vector3f(transformation.getTranslation()).add(offsetX, offsetY, offsetZ);
+        return new Transformation(
+            translation, transformation.getLeftRotation(),
+            transformation.getScale(), transformation.getRightRotation()
+        );
+    }
+    
+    int getInterpolationTicks() {
+        return interpolationTicks;
+    }
+    
+    void setInterpolationTicks(int ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Movement interpolation cannot be negative");
+        }
+        this.interpolationTicks = ticks;
+    }
+}
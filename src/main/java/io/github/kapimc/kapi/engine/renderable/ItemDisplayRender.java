@@ -25,6 +25,7 @@ import org.jspecify.annotations.Nullable;
 public final class ItemDisplayRender extends ItemDisplayData implements Renderable {
     
     private @Nullable ItemDisplay entity;
+    private final DisplayPosition position = new DisplayPosition();
     
     /**
      * @param data the item display data to use for rendering
@@ -47,6 +48,7 @@ public final class ItemDisplayRender extends ItemDisplayData implements Renderab
             throw new IllegalStateException("Cannot spawn an item display that has already been spawned");
         }
         entity = world.spawn(point.toLocation(world), ItemDisplay.class);
+        position.reset(world, point);
         entity.setTransformation(getTransformation());
         entity.setInterpolationDuration(getInterpolationDuration());
         entity.setViewRange(getViewRange());
@@ -65,10 +67,16 @@ public final class ItemDisplayRender extends ItemDisplayData implements Renderab
     @Kapi
     @Override
     public void render(World world, Vector point) {
+        render(world, point.getX(), point.getY(), point.getZ());
+    }
+    
+    @Kapi
+    @Override
+    public void render(World world, double x, double y, double z) {
         if (entity == null) {
             throw new IllegalStateException("Cannot render an item display that has not been spawned");
         }
-        entity.teleport(point.toLocation(world));
+        position.moveTo(entity, this, world, x, y, z);
     }
     
     @Kapi
@@ -78,6 +86,8 @@ public final class ItemDisplayRender extends ItemDisplayData implements Renderab
             throw new IllegalStateException("Cannot despawn an item display that has not been spawned");
         }
         entity.remove();
+        // Can be spawned again, by a respawn or by reusing a pooled instance
+        entity = null;
     }
     
     @Kapi
@@ -86,11 +96,48 @@ public final class ItemDisplayRender extends ItemDisplayData implements Renderab
         return entity != null;
     }
     
+    @Kapi
+    @Override
+    public double getRenderDistance() {
+        return getViewDistance();
+    }
+    
+    /**
+     * Sets how display movement is sent to players.<br>
+     * <br>
+     * With 0 (the default), the display is teleported every time it moves.<br>
+     * Otherwise, the display stays in place and its movement is sent as a translation
+     * of its transformation at most once every {@code ticks} ticks,
+     * which the client interpolates over the same amount of ticks.
+     * This sends far fewer packets for moving displays, at the cost of the display
+     * lagging behind its object by up to {@code ticks} ticks.<br>
+     * <br>
+     * Note: while moving, this overrides the interpolation duration and delay of the entity,
+     * and only applies to displays with a {@link Display.Billboard#FIXED} billboard,
+     * other billboards rotate the translation, so they are always teleported
+     *
+     * @param ticks the amount of ticks to interpolate each movement over, 0 to teleport
+     * @throws IllegalArgumentException if ticks is negative
+     */
+    @Kapi
+    public void setMovementInterpolation(int ticks) {
+        position.setInterpolationTicks(ticks);
+    }
+    
+    /**
+     * @return the amount of ticks each movement is interpolated over, 0 if the display is teleported
+     * @see #setMovementInterpolation(int)
+     */
+    @Kapi
+    public int getMovementInterpolation() {
+        return position.getInterpolationTicks();
+    }
+    
     @Kapi
     @Override
     public void setTransformation(Transformation transformation) {
         super.setTransformation(transformation);
-        if (entity != null) entity.setTransformation(transformation);
+        if (entity != null) entity.setTransformation(position.offset(transformation));
     }
     
     @Kapi
@@ -180,7 +227,9 @@ public final class ItemDisplayRender extends ItemDisplayData implements Renderab
     @Kapi
     @Override
     public ItemDisplayRender clone() {
-        return new ItemDisplayRender(super.clone());
+        ItemDisplayRender clone = new ItemDisplayRender(super.clone());
+        clone.setMovementInterpolation(getMovementInterpolation());
+        return clone;
     }
     
 }
@@ -9,16 +9,25 @@ package io.github.kapimc.kapi.engine.renderable;
 
 import io.github.kapimc.kapi.annotations.Kapi;
 import io.github.kapimc.kapi.data.ParticleData;
+import io.github.kapimc.kapi.engine.Engine;
 import org.bukkit.World;
 import org.bukkit.util.Vector;
 
 /**
- * Used for rendering particles.
+ * Used for rendering particles.<br>
+ * <br>
+ * Particle renders are immutable, so a single instance is shared by every point and object that uses it.
+ * To change the particle of a point, set a new render, see
+ * {@link io.github.kapimc.kapi.engine.PointCloud#setRenderable(int, Renderable)}.
  */
 @Kapi
 public final class ParticleRender implements Renderable {
     
-    private ParticleData particle;
+    // Players only receive particles within this distance, or within 512 blocks if forced
+    private static final double RENDER_DISTANCE = 32;
+    private static final double FORCED_RENDER_DISTANCE = 512;
+    
+    private final ParticleData particle;
     
     @Override
     public void spawn(World world, Vector point) {
@@ -27,9 +36,24 @@ public final class ParticleRender implements Renderable {
     
     @Override
     public void render(World world, Vector point) {
+        render(world, point.getX(), point.getY(), point.getZ());
+    }
+    
+    /**
+     * Emits the particle through the {@link Engine}'s particle batch,
+     * so it's sent with all other particles at the end of the tick.<br>
+     * If the engine isn't running, the particle is spawned immediately.
+     */
+    @Override
+    public void render(World world, double x, double y, double z) {
+        Engine engine = Engine.getInstance();
+        if (engine.isRunning()) {
+            engine.getParticleBatch().add(world, particle, x, y, z);
+            return;
+        }
         world.spawnParticle(
             particle.getParticle(),
-            point.getX(), point.getY(), point.getZ(),
+            x, y, z,
             particle.getCount(),
             particle.getSpreadX(), particle.getSpreadY(), particle.getSpreadZ(),
             particle.getExtra(),
@@ -48,24 +72,35 @@ public final class ParticleRender implements Renderable {
         return true;
     }
     
-    @Kapi
-    public ParticleData getParticle() {
-        return particle;
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+    
+    @Override
+    public double getRenderDistance() {
+        return particle.isForce() ? FORCED_RENDER_DISTANCE : RENDER_DISTANCE;
     }
     
+    /**
+     * @return a copy of the particle, modifying it won't affect this render
+     */
     @Kapi
-    public void setParticle(ParticleData particle) {
-        this.particle = particle;
+    public ParticleData getParticle() {
+        return new ParticleData(particle);
     }
     
+    /**
+     * @param particle the particle to render, copied
+     */
     @Kapi
     public ParticleRender(ParticleData particle) {
-        this.particle = particle;
+        this.particle = new ParticleData(particle);
     }
     
     @Override
     @Kapi
     public Renderable clone() {
-        return new ParticleRender(new ParticleData(particle));
+        return new ParticleRender(particle);
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.renderable;
+
+import io.github.kapimc.kapi.annotations.Kapi;
+
+/**
+ * Counters of the work done by the built-in renderables,
+ * useful to measure how much is actually sent to players.<br>
+ * <br>
+ * The counters are only updated from the main thread, and count since the last {@link #reset()}.
+ */
+@Kapi
+public final class RenderCounters {
+    
+    private static long teleports;
+    private static long skippedTeleports;
+    private static long interpolatedMoves;
+    
+    private RenderCounters() {
+        throw new AssertionError("RenderCounters should not be instantiated");
+    }
+    
+    /**
+     * @return the number of times a display entity was teleported while rendering
+     */
+    @Kapi
+    public static long getTeleports() {
+        return teleports;
+    }
+    
+    /**
+     * @return the number of teleports that were skipped,
+     *     because the display entity didn't move since the last one
+     */
+    @Kapi
+    public static long getSkippedTeleports() {
+        return skippedTeleports;
+    }
+    
+    /**
+     * @return the number of times a display entity was moved by interpolating its transformation,
+     *     instead of teleporting it, see {@link BlockDisplayRender#setMovementInterpolation(int)}
+     */
+    @Kapi
+    public static long getInterpolatedMoves() {
+        return interpolatedMoves;
+    }
+    
+    /**
+     * Resets all counters to 0.
+     */
+    @Kapi
+    public static void reset() {
+        teleports = 0;
+        skippedTeleports = 0;
+        interpolatedMoves = 0;
+    }
+    
+    static void teleported() {
+        teleports++;
+    }
+    
+    static void teleportSkipped() {
+        skippedTeleports++;
+    }
+    
+    static void interpolatedMove() {
+        interpolatedMoves++;
+    }
+}
@@ -39,6 +39,25 @@ public interface Renderable {
     @Kapi
     void render(World world, Vector point);
     
+    /**
+     * This is called every tick to render the object.
+     * Only called when {@link #isSpawned()} returns true.<br>
+     * Skipped while no player is within the {@link #getRenderDistance() render distance}.<br>
+     * <br>
+     * This is the method {@link Object3D} calls when rendering,
+     * the default implementation delegates to {@link #render(World, Vector)},
+     * override it to avoid allocating a vector for every point every tick.
+     *
+     * @param world the world to render the object in
+     * @param x     the x coordinate to render the object at
+     * @param y     the y coordinate to render the object at
+     * @param z     the z coordinate to render the object at
+     */
+    @Kapi
+    default void render(World world, double x, double y, double z) {
+        render(world, new Vector(x, y, z));
+    }
+    
     /**
      * Despawns the object in the world at the given point.
      * This stops rendering the object.
@@ -56,6 +75,31 @@ public interface Renderable {
     @Kapi
     boolean isSpawned();
     
+    /**
+     * Shareable renderables don't hold any per point state, like a spawned entity,
+     * so a single instance may be used by many points and many {@link Object3D}s.<br>
+     * Shareable renderables are not cloned when a template is instantiated,
+     * so they must be immutable, otherwise modifying one would affect every object using it.
+     *
+     * @return true if this renderable may be shared, false otherwise
+     */
+    @Kapi
+    default boolean isShareable() {
+        return false;
+    }
+    
+    /**
+     * The distance in blocks from which players can see this renderable.<br>
+     * Objects are not rendered while no player is within this distance,
+     * so nothing is sent to players that would ignore it anyway.
+     *
+     * @return the render distance in blocks, infinite by default so custom renderables are never culled
+     */
+    @Kapi
+    default double getRenderDistance() {
+        return Double.POSITIVE_INFINITY;
+    }
+    
     /**
      * @return a deep copy of this Renderable
      */
@@ -24,6 +24,7 @@ import org.jspecify.annotations.Nullable;
 public final class TextDisplayRender extends TextDisplayData implements Renderable {
     
     private @Nullable TextDisplay entity;
+    private final DisplayPosition position = new DisplayPosition();
     
     /**
      * Creates a new text display render.
@@ -51,6 +52,7 @@ public final class TextDisplayRender extends TextDisplayData implements Renderab
             throw new IllegalStateException("Cannot spawn a text display that has already been spawned");
         }
         entity = world.spawn(point.toLocation(world), TextDisplay.class);
+        position.reset(world, point);
         entity.setTransformation(getTransformation());
         entity.setInterpolationDuration(getInterpolationDuration());
         entity.setViewRange(getViewRange());
@@ -75,10 +77,16 @@ public final class TextDisplayRender extends TextDisplayData implements Renderab
     @Kapi
     @Override
     public void render(World world, Vector point) {
+        render(world, point.getX(), point.getY(), point.getZ());
+    }
+    
+    @Kapi
+    @Override
+    public void render(World world, double x, double y, double z) {
         if (entity == null) {
             throw new IllegalStateException("Cannot render a text display that has not been spawned");
         }
-        entity.teleport(point.toLocation(world));
+        position.moveTo(entity, this, world, x, y, z);
     }
     
     @Kapi
@@ -88,6 +96,8 @@ public final class TextDisplayRender extends TextDisplayData implements Renderab
             throw new IllegalStateException("Cannot despawn a text display that has not been spawned");
         }
         entity.remove();
+        // Can be spawned again, by a respawn or by reusing a pooled instance
+        entity = null;
     }
     
     @Kapi
@@ -96,11 +106,48 @@ public final class TextDisplayRender extends TextDisplayData implements Renderab
         return entity != null;
     }
     
+    @Kapi
+    @Override
+    public double getRenderDistance() {
+        return getViewDistance();
+    }
+    
+    /**
+     * Sets how display movement is sent to players.<br>
+     * <br>
+     * With 0 (the default), the display is teleported every time it moves.<br>
+     * Otherwise, the display stays in place and its movement is sent as a translation
+     * of its transformation at most once every {@code ticks} ticks,
+     * which the client interpolates over the same amount of ticks.
+     * This sends far fewer packets for moving displays, at the cost of the display
+     * lagging behind its object by up to {@code ticks} ticks.<br>
+     * <br>
+     * Note: while moving, this overrides the interpolation duration and delay of the entity,
+     * and only applies to displays with a {@link Display.Billboard#FIXED} billboard,
+     * other billboards rotate the translation, so they are always teleported
+     *
+     * @param ticks the amount of ticks to interpolate each movement over, 0 to teleport
+     * @throws IllegalArgumentException if ticks is negative
+     */
+    @Kapi
+    public void setMovementInterpolation(int ticks) {
+        position.setInterpolationTicks(ticks);
+    }
+    
+    /**
+     * @return the amount of ticks each movement is interpolated over, 0 if the display is teleported
+     * @see #setMovementInterpolation(int)
+     */
+    @Kapi
+    public int getMovementInterpolation() {
+        return position.getInterpolationTicks();
+    }
+    
     @Override
     @Kapi
     public void setTransformation(Transformation transformation) {
         super.setTransformation(transformation);
-        if (entity != null) entity.setTransformation(transformation);
+        if (entity != null) entity.setTransformation(position.offset(transformation));
     }
     
     @Override
@@ -236,7 +283,9 @@ public final class TextDisplayRender extends TextDisplayData implements Renderab
     @Kapi
     @Override
     public TextDisplayRender clone() {
-        return new TextDisplayRender(super.clone());
+        TextDisplayRender clone = new TextDisplayRender(super.clone());
+        clone.setMovementInterpolation(getMovementInterpolation());
+        return clone;
     }
     
 }
\ No newline at end of file
@@ -14,6 +14,8 @@ import org.bukkit.ChatColor;
 import org.bukkit.Server;
 import org.bukkit.command.CommandSender;
 
+import java.util.function.Supplier;
+
 /**
  * A utility class that includes a bunch of useful methods for logging messages.
  */
@@ -94,6 +96,25 @@ public final class Log {
         Log.currentLevel = level;
     }
     
+    /**
+     * Checks if messages with the given level are logged.
+     * <p>
+     * Use it to guard logging in hot paths, so the message
+     * (and a lambda capturing its arguments) is never created when the level is filtered out:
+     * <pre>{@code
+     * if (Log.isEnabled(Log.Level.KAPI)) {
+     *     Log.kapi("Rendering at " + x + ", " + y + ", " + z);
+     * }
+     * }</pre>
+     *
+     * @param level the log level to check
+     * @return true if the level is higher or equal to the current log level, false otherwise
+     */
+    @Kapi
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= currentLevel.ordinal();
+    }
+    
     /**
      * Logs the message to the console with the given level
      * if the level is higher or equal to the current log level.
@@ -106,7 +127,7 @@ public final class Log {
      */
     @Kapi
     public static void log(Level level, String message) {
-        if (level.ordinal() < currentLevel.ordinal()) return;
+        if (!isEnabled(level)) return;
         String prefix = "[" + KapiPlugin.get().getDescription().getName() + "] ";
         KapiPlugin.get()
             .getServer()
@@ -127,7 +148,7 @@ public final class Log {
      */
     @Kapi
     public static void log(Level level, String message, CommandSender... senders) {
-        if (level.ordinal() < currentLevel.ordinal()) return;
+        if (!isEnabled(level)) return;
         for (CommandSender sender : senders) {
             sender.sendMessage(level.getColor() + Utils.col(message));
         }
@@ -147,10 +168,30 @@ public final class Log {
      */
     @Kapi
     public static void broadcast(Level level, String message) {
-        if (level.ordinal() < currentLevel.ordinal()) return;
+        if (!isEnabled(level)) return;
         KapiPlugin.get().getServer().broadcastMessage(level.getColor() + Utils.col(message));
     }
     
+    /**
+     * Logs the supplied message to the console with the given level
+     * if the level is higher or equal to the current log level.
+     * <p>
+     * The supplier is only called if the message is logged,
+     * so building the message costs nothing when the level is filtered out.<br>
+     * Note: a lambda that captures variables is still created on every call,
+     * in hot paths prefer guarding with {@link #isEnabled(Level)}
+     * <p>
+     * See {@link Log#log(Level, String)} for more information.
+     *
+     * @param level   the log level to log the message with
+     * @param message the supplier of the message to log
+     */
+    @Kapi
+    public static void log(Level level, Supplier<String> message) {
+        if (!isEnabled(level)) return;
+        log(level, message.get());
+    }
+    
     /**
      * Logs the message to the console with {@link Level#KAPI},
      * see {@link Log#log(Level, String)} for more information.
@@ -162,6 +203,17 @@ public final class Log {
         log(Level.KAPI, message);
     }
     
+    /**
+     * Logs the supplied message to the console with {@link Level#KAPI},
+     * see {@link Log#log(Level, Supplier)} for more information.
+     *
+     * @param message the supplier of the message to log
+     */
+    @Kapi
+    public static void kapi(Supplier<String> message) {
+        log(Level.KAPI, message);
+    }
+    
     /**
      * Logs the message to the console with {@link Level#DEBUG},
      * see {@link Log#log(Level, String)} for more information.
@@ -173,6 +225,17 @@ public final class Log {
         log(Level.DEBUG, message);
     }
     
+    /**
+     * Logs the supplied message to the console with {@link Level#DEBUG},
+     * see {@link Log#log(Level, Supplier)} for more information.
+     *
+     * @param message the supplier of the message to log
+     */
+    @Kapi
+    public static void debug(Supplier<String> message) {
+        log(Level.DEBUG, message);
+    }
+    
     /**
      * Logs the message to the console with {@link Level#INFO},
      * see {@link Log#log(Level, String)} for more information.
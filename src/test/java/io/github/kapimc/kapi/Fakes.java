@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fake implementations of Bukkit interfaces for tests, there is no server in unit tests.
+ */
+public final class Fakes {
+    
+    /**
+     * Answers a call to a fake, return {@link #DEFAULT} to use the default value of the return type.
+     */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(String method, Object[] arguments);
+    }
+    
+    public static final Object DEFAULT = new Object();
+    
+    private Fakes() {
+        throw new AssertionError("Fakes should not be instantiated");
+    }
+    
+    /**
+     * @return a fake that returns the default value of the return type from every method
+     */
+    public static <T> T of(Class<T> type) {
+        return of(type, (method, arguments) -> DEFAULT);
+    }
+    
+    /**
+     * @param calls the list to record the name of every called method in
+     * @return a fake that records its calls and returns the default value of the return type
+     */
+    public static <T> T recording(Class<T> type, List<String> calls) {
+        return of(type, (method, arguments) -> {
+            calls.add(method);
+            return DEFAULT;
+        });
+    }
+    
+    /**
+     * @return a fake that answers every call with the given answer
+     */
+    public static <T> T of(Class<T> type, Answer answer) {
+        Object fake = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, arguments) -> {
+            Object[] args = arguments == null ? new Object[0] : arguments;
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Fake " + type.getSimpleName();
+            }
+            Object result = answer.answer(method.getName(), args);
+            return result == DEFAULT ? defaultValue(method.getReturnType()) : result;
+        });
+        return type.cast(fake);
+    }
+    
+    /**
+     * @return a list of calls, see {@link #recording(Class, List)}
+     */
+    public static List<String> calls() {
+        return new ArrayList<>();
+    }
+    
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == long.class) return 0L;
+        if (type == int.class) return 0;
+        if (type == short.class) return (short) 0;
+        return (byte) 0;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.data.ParticleData;
+import io.github.kapimc.kapi.engine.renderable.ParticleRender;
+import org.bukkit.Particle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateTest {
+    
+    private static final ParticleRender FLAME = new ParticleRender(
+        new ParticleData(Particle.FLAME, 1, 0, 0, 0, 0, null, false));
+        
+    @Test
+    void testModifyingTemplateCloudDoesNotAffectSnapshot() {
+        Template3D template = new Template3D(List.of(new Point(0, 0, 0, FLAME)));
+        CompiledTemplate compiled = template.compile();
+        
+        template.getPointCloud().set(0, 5, 5, 5);
+        template.getPointCloud().add(1, 1, 1, FLAME);
+        
+        assertEquals(1, compiled.points.size());
+        assertEquals(0, compiled.points.getX(0));
+        assertEquals(2, template.compile().points.size());
+        assertEquals(5, template.compile().points.getX(0));
+    }
+    
+    @Test
+    void testCloudModifiedAfterCompilingRecompiles() {
+        Template3D template = new Template3D(List.of(new Point(0, 0, 0, FLAME)));
+        PointCloud cloud = template.getPointCloud();
+        CompiledTemplate stale = template.compile();
+        
+        cloud.set(0, 5, 5, 5);
+        
+        assertNotSame(stale, template.compile());
+        assertEquals(5, template.compile().points.getX(0));
+        assertSame(template.compile(), template.compile());
+    }
+    
+    @Test
+    void testModifyingSnapshotInstanceDoesNotAffectTemplate() {
+        Template3D template = new Template3D(List.of(new Point(0, 0, 0, FLAME)));
+        PointCloud instance = template.compile().points.instantiate();
+        
+        instance.set(0, 5, 5, 5);
+        
+        assertEquals(0, template.getPointCloud().getX(0));
+        assertEquals(0, template.compile().points.getX(0));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.Fakes;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntitySnapshotTest {
+    
+    private Entity near;
+    private Entity far;
+    private World world;
+    private int nearbyScans;
+    private int fullScans;
+    
+    @BeforeEach
+    void setUp() {
+        near = entity(new BoundingBox(0, 0, 0, 1, 1, 1));
+        far = entity(new BoundingBox(100, 0, 0, 101, 1, 1));
+        nearbyScans = 0;
+        fullScans = 0;
+        world = Fakes.of(World.class, (method, arguments) -> switch (method) {
+            case "getNearbyEntities" -> {
+                nearbyScans++;
+                yield List.of(near);
+            }
+            case "getEntities" -> {
+                fullScans++;
+                yield List.of(near, far);
+            }
+            default -> Fakes.DEFAULT;
+        });
+    }
+    
+    @Test
+    void testFewQueriesScanNearbyChunks() {
+        EntitySnapshot snapshot = new EntitySnapshot();
+        for (int i = 0; i < 3; i++) {
+            List<Entity> result = new ArrayList<>();
+            snapshot.query(world, 1, -1, -1, -1, 2, 2, 2, result);
+            assertEquals(List.of(near), result);
+        }
+        assertEquals(3, nearbyScans);
+        assertEquals(0, fullScans);
+    }
+    
+    @Test
+    void testManyQueriesHashTheWorldOnce() {
+        EntitySnapshot snapshot = new EntitySnapshot();
+        for (int i = 0; i < 40; i++) {
+            List<Entity> result = new ArrayList<>();
+            snapshot.query(world, 1, -1, -1, -1, 2, 2, 2, result);
+            assertEquals(List.of(near), result);
+        }
+        assertEquals(1, fullScans);
+        int scansBeforeHashing = nearbyScans;
+        snapshot.release(1);
+        
+        // Queried as often last tick, so the world is hashed from the first query
+        List<Entity> result = new ArrayList<>();
+        snapshot.query(world, 2, -1, -1, -1, 2, 2, 2, result);
+        assertEquals(List.of(near), result);
+        assertEquals(2, fullScans);
+        assertEquals(scansBeforeHashing, nearbyScans);
+    }
+    
+    private static Entity entity(BoundingBox box) {
+        return Fakes.of(Entity.class, (method, arguments) -> method.equals("getBoundingBox") ? box : Fakes.DEFAULT);
+    }
+}
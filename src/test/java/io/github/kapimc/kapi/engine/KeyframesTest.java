@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyframesTest {
+    
+    private static final float EPSILON = 1e-5f;
+    
+    @Test
+    void testEasingEndpoints() {
+        for (Easing easing : Easing.values()) {
+            assertEquals(0, easing.apply(0), EPSILON, easing.name());
+            assertEquals(1, easing.apply(1), EPSILON, easing.name());
+        }
+        assertEquals(0.5f, Easing.EASE_IN_OUT.apply(0.5f), EPSILON);
+        assertEquals(0, Easing.STEP.apply(0.99f));
+    }
+    
+    @Test
+    void testSample() {
+        float[] times = {0, 10, 20};
+        float[] values = {0, 0, 10, 20, 10, 20};
+        Easing[] easings = {Easing.LINEAR, Easing.STEP, Easing.LINEAR};
+        float[] out = new float[2];
+        
+        Keyframes.sample(times, values, easings, 3, 2, 5, out, 0);
+        assertArrayEquals(new float[] {5, 10}, out, EPSILON);
+        
+        // Step holds the earlier keyframe
+        Keyframes.sample(times, values, easings, 3, 2, 15, out, 0);
+        assertArrayEquals(new float[] {10, 20}, out, EPSILON);
+        
+        // Outside the keyframes the nearest one is held
+        Keyframes.sample(times, values, easings, 3, 2, -1, out, 0);
+        assertArrayEquals(new float[] {0, 0}, out, EPSILON);
+        Keyframes.sample(times, values, easings, 3, 2, 30, out, 0);
+        assertArrayEquals(new float[] {10, 20}, out, EPSILON);
+    }
+    
+    @Test
+    void testSampleRotationTakesShortestPath() {
+        float half = (float) Math.sqrt(0.5);
+        float[] times = {0, 1};
+        // The second keyframe is a quarter turn around z, stored as its negated equivalent
+        float[] values = {0, 0, 0, 1, 0, 0, -half, -half};
+        Easing[] easings = {Easing.LINEAR, Easing.LINEAR};
+        float[] out = new float[4];
+        
+        Keyframes.sampleRotation(times, values, easings, 2, 0.5f, out, 0);
+        float eighth = (float) Math.sin(Math.PI / 8);
+        assertArrayEquals(new float[] {0, 0, eighth, (float) Math.cos(Math.PI / 8)}, out, EPSILON);
+    }
+    
+    @Test
+    void testCompose() {
+        float half = (float) Math.sqrt(0.5);
+        float[] matrix = new float[16];
+        Keyframes.compose(new float[] {1, 2, 3}, new float[] {0, 0, half, half}, new float[] {2, 2, 2}, matrix);
+        
+        // A quarter turn around z maps x to y, then scaled by 2 and translated
+        float x = 1, y = 0, z = 0;
+        assertEquals(1, matrix[0] * x + matrix[4] * y + matrix[8] * z + matrix[12], EPSILON);
+        assertEquals(4, matrix[1] * x + matrix[5] * y + matrix[9] * z + matrix[13], EPSILON);
+        assertEquals(3, matrix[2] * x + matrix[6] * y + matrix[10] * z + matrix[14], EPSILON);
+        assertEquals(1, matrix[15]);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixPaletteTest {
+    
+    private static final float EPSILON = 1e-5f;
+    private static final float[] IDENTITY = {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+    
+    @Test
+    void testInvertAffine() {
+        float[] matrix = new float[16];
+        float half = (float) Math.sqrt(0.5);
+        Keyframes.compose(new float[] {1, -2, 3}, new float[] {half, 0, 0, half}, new float[] {2, 0.5f, 3}, matrix);
+        
+        float[] inverse = new float[16];
+        MatrixPalette.invertAffine(matrix, 0, inverse, 0);
+        float[] product = new float[16];
+        MatrixPalette.mulAffine(matrix, 0, inverse, 0, product, 0);
+        assertArrayEquals(IDENTITY, product, EPSILON);
+        
+        assertThrows(IllegalArgumentException.class, () -> MatrixPalette.invertAffine(new float[16], 0, inverse, 0));
+    }
+    
+    @Test
+    void testEvaluate() {
+        // A root at y = 1 and a child one block above it
+        int[] parents = {-1, 0};
+        float[] binds = new float[32];
+        translation(binds, 0, 0, 1, 0);
+        translation(binds, 16, 0, 1, 0);
+        float[] inverseBinds = new float[32];
+        translation(inverseBinds, 0, 0, -1, 0);
+        translation(inverseBinds, 16, 0, -2, 0);
+        float[] worlds = new float[32];
+        float[] palette = new float[32];
+        
+        // In the bind pose every skinning matrix is the identity
+        MatrixPalette.evaluate(parents, binds, inverseBinds, 2, worlds, palette);
+        assertArrayEquals(IDENTITY, slice(palette, 0), EPSILON);
+        assertArrayEquals(IDENTITY, slice(palette, 16), EPSILON);
+        
+        // A quarter turn of the root around z swings the child's bind position (0, 2, 0) to (-1, 1, 0)
+        float half = (float) Math.sqrt(0.5);
+        float[] locals = binds.clone();
+        Keyframes.compose(new float[] {0, 1, 0}, new float[] {0, 0, half, half}, new float[] {1, 1, 1}, locals);
+        MatrixPalette.evaluate(parents, locals, inverseBinds, 2, worlds, palette);
+        assertEquals(-1, palette[20] * 2 + palette[28], EPSILON);
+        assertEquals(1, palette[21] * 2 + palette[29], EPSILON);
+        assertEquals(0, palette[22] * 2 + palette[30], EPSILON);
+    }
+    
+    private static void translation(float[] matrix, int offset, float x, float y, float z) {
+        System.arraycopy(IDENTITY, 0, matrix, offset, 16);
+        matrix[offset + 12] = x;
+        matrix[offset + 13] = y;
+        matrix[offset + 14] = z;
+    }
+    
+    private static float[] slice(float[] matrices, int offset) {
+        float[] matrix = new float[16];
+        System.arraycopy(matrices, offset, matrix, 0, 16);
+        return matrix;
+    }
+}
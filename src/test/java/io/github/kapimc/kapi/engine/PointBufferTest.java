@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointBufferTest {
+    
+    // Column-major, translates by (1, 2, 3) and scales by 2
+    private static final float[] MATRIX = {
+        2, 0, 0, 0,
+        0, 2, 0, 0,
+        0, 0, 2, 0,
+        1, 2, 3, 1
+    };
+    
+    @Test
+    void testTransform() {
+        PointBuffer local = new PointBuffer();
+        local.add(1, 0, 0);
+        local.add(0, -1, 0.5);
+        PointBuffer world = new PointBuffer();
+        local.transform(MATRIX, world);
+        
+        assertEquals(2, world.size());
+        assertEquals(3, world.getX(0), 1e-6);
+        assertEquals(2, world.getY(0), 1e-6);
+        assertEquals(3, world.getZ(0), 1e-6);
+        assertEquals(1, world.getX(1), 1e-6);
+        assertEquals(0, world.getY(1), 1e-6);
+        assertEquals(4, world.getZ(1), 1e-6);
+    }
+    
+    @Test
+    void testTransformDoesNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) {
+            return; // Allocation counting is not supported by this JVM
+        }
+        
+        int points = 2000;
+        PointBuffer local = new PointBuffer();
+        PointBuffer world = new PointBuffer();
+        
+        // Warm up, so buffers are grown and the loop is compiled
+        for (int i = 0; i < 100; i++) {
+            render(local, world, points);
+        }
+        
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100; i++) {
+            render(local, world, points);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        
+        // Allocating a single object per point would be several megabytes
+        assertTrue(allocated < 1024, "Rendering allocated " + allocated + " bytes");
+    }
+    
+    private static void render(PointBuffer local, PointBuffer world, int points) {
+        local.clear();
+        for (int i = 0; i < points; i++) {
+            local.add(i, -i, i * 0.5);
+        }
+        local.transform(MATRIX, world);
+    }
+}
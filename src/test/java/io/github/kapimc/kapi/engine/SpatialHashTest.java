@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialHashTest {
+    
+    @Test
+    void testQuery() {
+        SpatialHash<String> hash = new SpatialHash<>(4);
+        hash.add("origin", -0.5, 0, -0.5, 0.5, 2, 0.5);
+        hash.add("near", 2, 0, 2, 3, 1, 3);
+        hash.add("far", 100, 0, 100, 101, 1, 101);
+        hash.add("huge", -500, -500, -500, 500, 500, 500);
+        
+        List<String> result = new ArrayList<>();
+        hash.query(-1, -1, -1, 1, 1, 1, result);
+        assertEquals(Set.of("origin", "huge"), new HashSet<>(result));
+        assertEquals(2, result.size());
+        
+        result.clear();
+        hash.query(-3, -3, -3, 3, 3, 3, result);
+        assertEquals(Set.of("origin", "near", "huge"), new HashSet<>(result));
+        assertEquals(3, result.size());
+        
+        // Touching boxes don't overlap
+        result.clear();
+        hash.query(0.5, 0, -0.5, 1.5, 2, 0.5, result);
+        assertEquals(List.of("huge"), result);
+    }
+    
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(42);
+        SpatialHash<Integer> hash = new SpatialHash<>(4);
+        double[][] boxes = new double[2000][];
+        for (int i = 0; i < boxes.length; i++) {
+            double x = random.nextDouble() * 200 - 100;
+            double y = random.nextDouble() * 20;
+            double z = random.nextDouble() * 200 - 100;
+            double size = random.nextDouble() * 3;
+            boxes[i] = new double[] {x, y, z, x + size, y + size, z + size};
+            hash.add(i, x, y, z, x + size, y + size, z + size);
+        }
+        
+        for (int query = 0; query < 500; query++) {
+            double x = random.nextDouble() * 200 - 100;
+            double y = random.nextDouble() * 20;
+            double z = random.nextDouble() * 200 - 100;
+            double radius = random.nextDouble() * (query % 50 == 0 ? 80 : 6);
+            
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < boxes.length; i++) {
+                double[] box = boxes[i];
+                if (box[0] < x + radius && box[3] > x - radius
+                    && box[1] < y + radius && box[4] > y - radius
+                    && box[2] < z + radius && box[5] > z - radius) {
+                    expected.add(i);
+                }
+            }
+            
+            List<Integer> result = new ArrayList<>();
+            hash.query(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, result);
+            assertEquals(expected.size(), result.size());
+            assertEquals(expected, new HashSet<>(result));
+        }
+    }
+    
+    @Test
+    void testClear() {
+        SpatialHash<String> hash = new SpatialHash<>(4);
+        hash.add("a", 0, 0, 0, 1, 1, 1);
+        List<String> result = new ArrayList<>();
+        hash.query(0, 0, 0, 1, 1, 1, result);
+        assertEquals(List.of("a"), result);
+        
+        hash.clear();
+        assertEquals(0, hash.size());
+        hash.add("b", 0, 0, 0, 1, 1, 1);
+        result.clear();
+        hash.query(0, 0, 0, 1, 1, 1, result);
+        assertEquals(List.of("b"), result);
+    }
+}
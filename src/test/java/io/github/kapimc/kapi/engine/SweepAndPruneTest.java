@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepAndPruneTest {
+    
+    @Test
+    void testFindPairs() {
+        SweepAndPrune broadphase = new SweepAndPrune();
+        broadphase.add(0, 0, 0, 2, 2, 2);
+        broadphase.add(1, 1, 1, 3, 3, 3);
+        broadphase.add(2, 0, 0, 4, 1.5, 1.5); // Only touches the first box
+        broadphase.add(-10, -10, -10, -9, -9, -9);
+        
+        Set<Long> pairs = findPairs(broadphase);
+        assertEquals(Set.of(pair(0, 1), pair(1, 2)), pairs);
+    }
+    
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(7);
+        SweepAndPrune broadphase = new SweepAndPrune();
+        double[][] boxes = new double[1500][];
+        for (int i = 0; i < boxes.length; i++) {
+            // Mixed signs and magnitudes, to cover the float rounding of the sort keys
+            double x = (random.nextDouble() - 0.5) * (i % 3 == 0 ? 1e6 : 300);
+            double y = random.nextDouble() * 30;
+            double z = random.nextDouble() * 300 - 150;
+            double size = random.nextDouble() * 4;
+            boxes[i] = new double[] {x, y, z, x + size, y + size, z + size};
+            broadphase.add(x, y, z, x + size, y + size, z + size);
+        }
+        
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < boxes.length; i++) {
+            for (int j = i + 1; j < boxes.length; j++) {
+                double[] a = boxes[i];
+                double[] b = boxes[j];
+                if (a[0] < b[3] && a[3] > b[0] && a[1] < b[4] && a[4] > b[1] && a[2] < b[5] && a[5] > b[2]) {
+                    expected.add(pair(i, j));
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, findPairs(broadphase));
+    }
+    
+    private static Set<Long> findPairs(SweepAndPrune broadphase) {
+        Set<Long> pairs = new HashSet<>();
+        broadphase.findPairs((first, second) -> {
+            assertNotEquals(first, second);
+            assertTrue(pairs.add(pair(first, second)), "Pair reported twice");
+        });
+        return pairs;
+    }
+    
+    private static long pair(int first, int second) {
+        return ((long) Math.min(first, second) << 32) | Math.max(first, second);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.Fakes;
+import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
+import org.bukkit.World;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SystemSchedulerTest {
+    
+    @Test
+    void testLongDelayRunsOnceAtDueTick() {
+        SystemScheduler scheduler = new SystemScheduler();
+        List<Long> runs = new ArrayList<>();
+        long[] tick = {0};
+        scheduler.subscribe(object(), SystemTrigger.delay(72000), object -> runs.add(tick[0]), 0);
+        for (tick[0] = 1; tick[0] <= 72010; tick[0]++) {
+            scheduler.tick(tick[0]);
+        }
+        assertEquals(List.of(72001L), runs);
+        assertEquals(0, scheduler.getGroupCount());
+        assertEquals(0, scheduler.getSubscriptionCount());
+    }
+    
+    @Test
+    void testMaximumDelayDoesNotAllocatePerTick() {
+        SystemScheduler scheduler = new SystemScheduler();
+        SystemTrigger trigger = SystemTrigger.delay(Integer.MAX_VALUE);
+        assertDoesNotThrow(() -> scheduler.subscribe(object(), trigger, object -> {}, 0));
+        assertEquals(1, scheduler.getGroupCount());
+    }
+    
+    @Test
+    void testOneShotsWithDifferentDueTicksShareGroup() {
+        SystemScheduler scheduler = new SystemScheduler();
+        List<Long> runs = new ArrayList<>();
+        long[] tick = {0};
+        Consumer<Object3D> system = object -> runs.add(tick[0]);
+        scheduler.subscribe(object(), SystemTrigger.delay(10), system, 0);
+        scheduler.subscribe(object(), SystemTrigger.delay(10), system, 3);
+        assertEquals(1, scheduler.getGroupCount());
+        for (tick[0] = 1; tick[0] <= 20; tick[0]++) {
+            scheduler.tick(tick[0]);
+        }
+        assertEquals(List.of(11L, 14L), runs);
+    }
+    
+    @Test
+    void testEmptyGroupIsRemoved() {
+        SystemScheduler scheduler = new SystemScheduler();
+        for (int i = 0; i < 100; i++) {
+            int captured = i;
+            SystemScheduler.Subscription subscription = scheduler.subscribe(
+                object(), SystemTrigger.TICK, object -> assertTrue(captured >= 0), 0);
+            scheduler.unsubscribe(subscription);
+        }
+        assertEquals(0, scheduler.getGroupCount());
+    }
+    
+    @Test
+    void testGroupEmptiedWhileTickingIsRemovedAfterTick() {
+        SystemScheduler scheduler = new SystemScheduler();
+        SystemScheduler.Subscription[] subscription = new SystemScheduler.Subscription[1];
+        int[] runs = {0};
+        subscription[0] = scheduler.subscribe(object(), SystemTrigger.TICK, object -> {
+            runs[0]++;
+            scheduler.unsubscribe(subscription[0]);
+        }, 0);
+        scheduler.subscribe(object(), SystemTrigger.TICK, object -> runs[0]++, 0);
+        
+        scheduler.tick(1);
+        assertEquals(2, runs[0]);
+        assertEquals(1, scheduler.getGroupCount());
+        scheduler.tick(2);
+        assertEquals(3, runs[0]);
+    }
+    
+    @Test
+    void testNegativeDelayOrPeriodIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SystemTrigger.interval(-1));
+        assertThrows(IllegalArgumentException.class, () -> SystemTrigger.delay(-1));
+        assertThrows(IllegalArgumentException.class, () -> SystemTrigger.delayedInterval(1, -1));
+    }
+    
+    private static Object3D object() {
+        return new Template3D(List.of()).newInstance(Fakes.of(World.class), new Matrix4f());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.Fakes;
+import io.github.kapimc.kapi.data.BlockDisplayData;
+import io.github.kapimc.kapi.engine.renderable.BlockDisplayRender;
+import org.bukkit.Color;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Display;
+import org.bukkit.util.Transformation;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Template3DPoolTest {
+    
+    private int spawnedEntities;
+    private World world;
+    
+    @BeforeEach
+    void setUp() {
+        // There is no server to schedule the engine's tick task on
+        Engine.getInstance().startWithoutTask();
+        
+        spawnedEntities = 0;
+        world = Fakes.of(World.class, (method, arguments) -> {
+            if (!method.equals("spawn")) return Fakes.DEFAULT;
+            spawnedEntities++;
+            return Fakes.of((Class<?>) arguments[1]);
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        // Registered objects and the running state must not leak into other tests
+        Engine.shutdown();
+    }
+    
+    @Test
+    void testRespawnPooledDisplayInstance() {
+        Template3D template = new Template3D(List.of(new Point(0, 0, 0, display())));
+        template.setPoolSize(1);
+        
+        Object3D first = template.newInstance(world, new Matrix4f());
+        first.spawn();
+        first.despawn();
+        assertEquals(1, template.getPooledInstanceCount());
+        
+        Object3D second = template.newInstance(world, new Matrix4f());
+        assertSame(first, second);
+        assertDoesNotThrow(second::spawn);
+        assertEquals(2, spawnedEntities);
+        second.despawn();
+    }
+    
+    @Test
+    void testCloudModifiedInPlaceSkipsPooledInstance() {
+        Template3D template = new Template3D(List.of(new Point(0, 0, 0, display())));
+        template.setPoolSize(1);
+        PointCloud cloud = template.getPointCloud();
+        
+        Object3D first = template.newInstance(world, new Matrix4f());
+        first.spawn();
+        first.despawn();
+        cloud.set(0, 5, 5, 5);
+        
+        Object3D second = template.newInstance(world, new Matrix4f());
+        assertNotSame(first, second);
+        assertEquals(5, second.getPointCloud().getX(0));
+    }
+    
+    private static BlockDisplayRender display() {
+        Transformation transformation = new Transformation(
+            new Vector3f(), new Quaternionf(), new Vector3f(1, 1, 1), new Quaternionf());
+        return new BlockDisplayRender(new BlockDisplayData(
+            transformation, 0, 1, 0, 0, 0, 0, 0, Display.Billboard.FIXED,
+            Color.fromRGB(255, 255, 255), new Display.Brightness(15, 15), blockData()
+        ));
+    }
+    
+    private static BlockData blockData() {
+        return Fakes.of(BlockData.class, (method, arguments) -> method.equals("clone") ? blockData() : Fakes.DEFAULT);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine;
+
+import io.github.kapimc.kapi.Fakes;
+import io.github.kapimc.kapi.data.ParticleData;
+import io.github.kapimc.kapi.engine.ecs.SystemTrigger;
+import io.github.kapimc.kapi.engine.renderable.ParticleRender;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Template3DTest {
+    
+    private static final Point FLAME = new Point(0, 0, 0, new ParticleRender(
+        new ParticleData(Particle.FLAME, 1, 0, 0, 0, 0, null, false)));
+        
+    @Test
+    void testLevelOfDetailRejectedOnRiggedTemplate() {
+        Template3D template = new Template3D(List.of(FLAME));
+        template.setRig(new Rig());
+        assertThrows(IllegalStateException.class, () -> template.addLevelOfDetail(16, List.of(FLAME)));
+    }
+    
+    @Test
+    void testRigRejectedWithLevelsOfDetail() {
+        Template3D template = new Template3D(List.of(FLAME));
+        template.addLevelOfDetail(16, List.of(FLAME));
+        assertThrows(IllegalStateException.class, () -> template.setRig(new Rig()));
+        assertDoesNotThrow(() -> template.setRig(null));
+        
+        template.clearLevelsOfDetail();
+        assertDoesNotThrow(() -> template.setRig(new Rig()));
+    }
+    
+    @Test
+    void testTriggeringUnknownEventDoesNotInternIt() {
+        Object3D object = new Template3D(List.of(FLAME)).newInstance(Fakes.of(World.class), new Matrix4f());
+        object.triggerEvent("test_unknown_event");
+        assertEquals(-1, SystemTrigger.findEventId("test_unknown_event"));
+    }
+}
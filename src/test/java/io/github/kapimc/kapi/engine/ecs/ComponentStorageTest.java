@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentStorageTest {
+    
+    @Test
+    void testReadingUnknownNameDoesNotCreateKey() {
+        ComponentStorage storage = new ComponentStorage();
+        assertNull(storage.get("test_never_set"));
+        assertFalse(storage.has("test_never_set"));
+        storage.remove("test_never_set");
+        assertNull(ComponentKey.find("test_never_set"));
+    }
+    
+    @Test
+    void testSetCreatesKey() {
+        ComponentStorage storage = new ComponentStorage();
+        storage.set("test_set", 5);
+        assertNotNull(ComponentKey.find("test_set"));
+        assertTrue(storage.has("test_set"));
+        assertEquals(5, storage.get("test_set"));
+        
+        storage.remove("test_set");
+        assertFalse(storage.has("test_set"));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EcsWorldTest {
+    
+    private static final ColumnComponent POSITION = ColumnComponent.of("test_position", 3);
+    private static final ColumnComponent VELOCITY = ColumnComponent.of("test_velocity", 3);
+    private static final ColumnComponent HEALTH = ColumnComponent.of("test_health", 1);
+    
+    @Test
+    void testIntegrate() {
+        EcsWorld world = new EcsWorld();
+        int moving = world.spawn(POSITION, VELOCITY);
+        int still = world.spawn(POSITION);
+        world.set(moving, POSITION, 1, 2, 3);
+        world.set(moving, VELOCITY, 0.5f, 0, -1);
+        world.set(still, POSITION, 5, 5, 5);
+        
+        BulkSystem system = EcsWorld.integrate(POSITION, VELOCITY);
+        world.run(system, POSITION, VELOCITY);
+        world.run(system, POSITION, VELOCITY);
+        
+        assertEquals(2, world.getValue(moving, POSITION, 0));
+        assertEquals(2, world.getValue(moving, POSITION, 1));
+        assertEquals(1, world.getValue(moving, POSITION, 2));
+        assertEquals(5, world.getValue(still, POSITION, 0));
+    }
+    
+    @Test
+    void testDespawnKeepsOtherEntities() {
+        EcsWorld world = new EcsWorld();
+        int[] entities = new int[100];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = world.spawn(HEALTH);
+            world.setValue(entities[i], HEALTH, 0, i);
+        }
+        for (int i = 0; i < entities.length; i += 2) {
+            world.despawn(entities[i]);
+        }
+        
+        assertEquals(50, world.getEntityCount());
+        for (int i = 0; i < entities.length; i++) {
+            assertEquals(i % 2 != 0, world.isAlive(entities[i]));
+            if (i % 2 != 0) {
+                assertEquals(i, world.getValue(entities[i], HEALTH, 0));
+            }
+        }
+        
+        // Reused rows must start at 0
+        int spawned = world.spawn(HEALTH);
+        assertEquals(0, world.getValue(spawned, HEALTH, 0));
+    }
+    
+    @Test
+    void testAddAndRemoveComponents() {
+        EcsWorld world = new EcsWorld();
+        int entity = world.spawn(POSITION);
+        int other = world.spawn(POSITION);
+        world.set(entity, POSITION, 1, 2, 3);
+        world.set(other, POSITION, 4, 5, 6);
+        
+        world.add(entity, HEALTH);
+        assertTrue(world.has(entity, HEALTH));
+        assertEquals(0, world.getValue(entity, HEALTH, 0));
+        assertEquals(3, world.getValue(entity, POSITION, 2));
+        assertEquals(6, world.getValue(other, POSITION, 2));
+        
+        world.remove(entity, POSITION);
+        assertFalse(world.has(entity, POSITION));
+        assertThrows(IllegalArgumentException.class, () -> world.getValue(entity, POSITION, 0));
+        
+        int[] count = {0};
+        world.run(archetype -> count[0] += archetype.size(), HEALTH);
+        assertEquals(1, count[0]);
+    }
+    
+    @Test
+    void testInvalidArguments() {
+        EcsWorld world = new EcsWorld();
+        int entity = world.spawn(POSITION);
+        assertThrows(IllegalArgumentException.class, () -> world.set(entity, POSITION, 1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> world.getValue(entity, POSITION, 3));
+        assertThrows(IllegalArgumentException.class, () -> ColumnComponent.of("test_position", 2));
+        assertThrows(IllegalArgumentException.class, () -> EcsWorld.integrate(POSITION, HEALTH));
+        world.despawn(entity);
+        assertThrows(IllegalArgumentException.class, () -> world.despawn(entity));
+    }
+}
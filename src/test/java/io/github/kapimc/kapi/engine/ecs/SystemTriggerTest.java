@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.ecs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SystemTriggerTest {
+    
+    @Test
+    void testFindingUnknownEventDoesNotInternIt() {
+        assertEquals(-1, SystemTrigger.findEventId("test_never_listened"));
+        assertEquals(-1, SystemTrigger.findEventId("test_never_listened"));
+    }
+    
+    @Test
+    void testFindingListenedEventReturnsItsId() {
+        SystemTrigger trigger = SystemTrigger.event("test_listened");
+        assertEquals(trigger.getEventId(), SystemTrigger.findEventId("test_listened"));
+        assertEquals(SystemTrigger.SPAWN_EVENT, SystemTrigger.eventName(SystemTrigger.findEventId("spawn")));
+    }
+}
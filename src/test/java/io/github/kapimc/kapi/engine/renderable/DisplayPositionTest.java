@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.renderable;
+
+import io.github.kapimc.kapi.Fakes;
+import io.github.kapimc.kapi.data.BlockDisplayData;
+import io.github.kapimc.kapi.data.DisplayData;
+import org.bukkit.Color;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Display;
+import org.bukkit.util.Transformation;
+import org.bukkit.util.Vector;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisplayPositionTest {
+    
+    private World world;
+    private List<String> calls;
+    private Display entity;
+    private DisplayData data;
+    
+    @BeforeEach
+    void setUp() {
+        RenderCounters.reset();
+        world = Fakes.of(World.class);
+        calls = Fakes.calls();
+        entity = Fakes.recording(Display.class, calls);
+        Transformation transformation = new Transformation(
+            new Vector3f(), new Quaternionf(), new Vector3f(1, 1, 1), new Quaternionf());
+        data = new BlockDisplayData(
+            transformation, 0, 1, 0, 0, 0, 0, 0, Display.Billboard.FIXED,
+            Color.fromRGB(255, 255, 255), new Display.Brightness(15, 15), Fakes.of(BlockData.class)
+        );
+    }
+    
+    @Test
+    void testFirstMoveAfterResetIsInterpolated() {
+        DisplayPosition position = new DisplayPosition();
+        position.setInterpolationTicks(5);
+        position.reset(world, new Vector(0, 0, 0));
+        
+        position.moveTo(entity, data, world, 1, 0, 0);
+        assertEquals(1, RenderCounters.getInterpolatedMoves());
+        assertTrue(calls.contains("setTransformation"));
+    }
+    
+    @Test
+    void testThrottledMoveIsNotCountedAsSkippedTeleport() {
+        DisplayPosition position = new DisplayPosition();
+        position.setInterpolationTicks(5);
+        position.reset(world, new Vector(0, 0, 0));
+        
+        position.moveTo(entity, data, world, 1, 0, 0);
+        // Same engine tick, the first movement is still being interpolated
+        position.moveTo(entity, data, world, 2, 0, 0);
+        assertEquals(1, RenderCounters.getInterpolatedMoves());
+        assertEquals(0, RenderCounters.getSkippedTeleports());
+        assertEquals(0, RenderCounters.getTeleports());
+    }
+}
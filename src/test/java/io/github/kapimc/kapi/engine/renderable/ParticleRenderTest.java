@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2024 Kyren223
+ * Licensed under the GPL-3.0 license.
+ * See https://www.gnu.org/licenses/gpl-3.0 for details.
+ * Created for Kapi: https://github.com/kapimc/kapi
+ */
+
+package io.github.kapimc.kapi.engine.renderable;
+
+import io.github.kapimc.kapi.data.ParticleData;
+import org.bukkit.Particle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticleRenderTest {
+    
+    @Test
+    void testParticleCannotBeModifiedThroughRender() {
+        ParticleData data = new ParticleData(Particle.FLAME, 1, 0, 0, 0, 0, null, false);
+        ParticleRender render = new ParticleRender(data);
+        
+        data.setParticle(Particle.SMOKE_NORMAL);
+        render.getParticle().setParticle(Particle.SMOKE_NORMAL);
+        
+        assertEquals(Particle.FLAME, render.getParticle().getParticle());
+    }
+}